@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+#
+# Builds the production fast-start artifacts:
+# 1. the prod jar with Spring AOT processing (mvn -Pprod package)
+# 2. the jar extracted into target/app (AppCDS needs a classpath of plain jars)
+# 3. an AppCDS archive (target/app/application.jsa) recorded during a training run
+#
+# The training run refreshes the application context and exits (-Dspring.context.exit=onRefresh),
+# so it needs the same .env and database access as a real start.
+#
+# Start the result with:
+#   java -XX:SharedArchiveFile=target/app/application.jsa -Dspring.aot.enabled=true \
+#        -Dspring.profiles.active=prod -jar target/app/springsecurity-0.0.1-SNAPSHOT.jar
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAR_NAME=springsecurity-0.0.1-SNAPSHOT.jar
+
+./mvnw -B -Pprod -DskipTests package
+
+rm -rf target/app
+java -Djarmode=tools -jar "target/${JAR_NAME}" extract --destination target/app
+
+java -XX:ArchiveClassesAtExit=target/app/application.jsa \
+     -Dspring.aot.enabled=true \
+     -Dspring.profiles.active=prod \
+     -Dspring.context.exit=onRefresh \
+     -jar "target/app/${JAR_NAME}"
+
+echo "AppCDS archive written to target/app/application.jsa"
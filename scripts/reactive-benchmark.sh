@@ -0,0 +1,122 @@
+#!/usr/bin/env bash
+#
+# Servlet vs reactive benchmark of the authentication API, both run from the same jar
+#   servlet  - Spring MVC on Tomcat, JPA/JDBC (default)
+#   reactive - WebFlux on Netty, R2DBC (spring.profiles.active=reactive)
+#
+# Usage:    scripts/reactive-benchmark.sh [connections ...]     (default: 100 1000 5000)
+# Requires: mvn -Preactive package, .env with database access, curl, wrk, jcmd (JDK)
+# Output:   target/reactive-benchmark.csv and a summary per stack and connection count
+#
+# For each stack and connection count, wrk holds that many keep-alive connections open against
+# the authenticated GET /api/v1/user/me (JWT validation + cached profile, no DB query) and reports:
+#   requests_per_sec  - sustained throughput of 2xx responses (wrk's "Non-2xx or 3xx responses" are
+#                       subtracted, so a stack answering errors fast does not look faster)
+#   non_2xx           - responses that were not 2xx/3xx, expected 0
+#   p99_ms            - 99th percentile latency
+#   heap_mb           - live heap after a full GC while the connections are open, minus the idle baseline
+#   connections_per_gb - connections held per GB of that heap (higher is better)
+#   threads           - JVM threads while the connections are open
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONNECTIONS=("$@")
+if [ ${#CONNECTIONS[@]} -eq 0 ]; then
+    CONNECTIONS=(100 1000 5000)
+fi
+
+JAR=target/springsecurity-0.0.1-SNAPSHOT.jar
+HEAP="${HEAP:-512m}"
+DURATION_SECONDS="${DURATION_SECONDS:-30}"
+WRK_THREADS="${WRK_THREADS:-4}"
+PORT="${SERVER_PORT:-$(sed -n 's/^SERVER_PORT=//p' .env)}"
+BASE="http://localhost:${PORT}"
+OUT=target/reactive-benchmark.csv
+TIMEOUT_SECONDS=120
+
+EMAIL=benchmark@example.invalid
+PASSWORD=benchmark-password
+
+# the same fixed heap for both stacks, so heap_mb is comparable; the servlet stack's adaptive
+# concurrency limiter (ConcurrencyLimitFilter) is switched off, it would shed the load with 503s
+# and the reactive stack has no equivalent
+jvm_args() {
+    case "$1" in
+        servlet)  echo "-Xms${HEAP} -Xmx${HEAP} -Dapp.concurrency.enabled=false" ;;
+        reactive) echo "-Xms${HEAP} -Xmx${HEAP} -Dspring.profiles.active=reactive" ;;
+        *)        echo "Unknown stack: $1" >&2; exit 1 ;;
+    esac
+}
+
+# live heap in MB after a full GC
+live_heap_mb() {
+    jcmd "$1" GC.run > /dev/null
+    # one "total ..., used ...K" line per heap (G1) or per generation (Serial/Parallel), Metaspace excluded
+    jcmd "$1" GC.heap_info | awk '/ total / && !/Metaspace/ { for (i = 1; i < NF; i++) if ($i == "used") { v = $(i + 1); sub(/K.*$/, "", v); kb += v } }
+                                 END { print int(kb / 1024) }'
+}
+
+thread_count() {
+    awk '/^Threads:/ { print $2 }' "/proc/$1/status"
+}
+
+echo "stack,connections,requests_per_sec,non_2xx,p99_ms,heap_mb,connections_per_gb,threads" > "$OUT"
+
+for stack in servlet reactive; do
+    log="target/reactive-benchmark-${stack}.log"
+    # shellcheck disable=SC2046
+    java $(jvm_args "$stack") -jar "$JAR" > "$log" 2>&1 &
+    pid=$!
+    trap 'kill "$pid" 2>/dev/null || true' EXIT
+
+    for _ in $(seq 1 $((TIMEOUT_SECONDS * 10))); do
+        curl -sf -o /dev/null "${BASE}/actuator/health/readiness" && break
+        kill -0 "$pid" 2>/dev/null || { echo "Application exited, see $log" >&2; exit 1; }
+        sleep 0.1
+    done
+
+    # the benchmark user may already exist from a previous run (400)
+    curl -s -o /dev/null -H 'Content-Type: application/json' \
+        -d "{\"userName\":\"benchmark\",\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}" "${BASE}/api/v1/public/signup"
+    token=$(curl -sf -H 'Content-Type: application/json' \
+        -d "{\"email\":\"${EMAIL}\",\"password\":\"${PASSWORD}\"}" "${BASE}/api/v1/public/signin" \
+        | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+    [ -n "$token" ] || { echo "Sign-in failed on ${stack}, see $log" >&2; exit 1; }
+
+    idle_heap_mb=$(live_heap_mb "$pid")
+
+    for connections in "${CONNECTIONS[@]}"; do
+        wrk_out="target/reactive-benchmark-${stack}-${connections}.txt"
+        wrk -t"$WRK_THREADS" -c"$connections" -d"${DURATION_SECONDS}s" --latency \
+            -H "Authorization: Bearer ${token}" "${BASE}/api/v1/user/me" > "$wrk_out" &
+        wrk_pid=$!
+
+        # sample while every connection is open: halfway through the run
+        sleep $(( DURATION_SECONDS / 2 ))
+        loaded_heap_mb=$(live_heap_mb "$pid")
+        threads=$(thread_count "$pid")
+        wait "$wrk_pid"
+
+        # successful requests only: scale wrk's Requests/sec by the share of 2xx/3xx responses
+        non_2xx=$(awk '/Non-2xx or 3xx responses:/ { print $NF }' "$wrk_out")
+        non_2xx=${non_2xx:-0}
+        requests_per_sec=$(awk -v failed="$non_2xx" '/ requests in / { total = $1 }
+                                                     /^Requests\/sec:/ { rate = $2 }
+                                                     END { printf "%d", (total > 0) ? rate * (total - failed) / total : 0 }' "$wrk_out")
+        p99_ms=$(awk '$1 == "99%" { v = $2; if (v ~ /us$/) { sub(/us$/, "", v); v /= 1000 } else if (v ~ /ms$/) { sub(/ms$/, "", v) } else { sub(/s$/, "", v); v *= 1000 } printf "%.1f", v }' "$wrk_out")
+        heap_mb=$(( loaded_heap_mb > idle_heap_mb ? loaded_heap_mb - idle_heap_mb : 1 ))
+        connections_per_gb=$(( connections * 1024 / heap_mb ))
+
+        echo "${stack},${connections},${requests_per_sec},${non_2xx},${p99_ms},${heap_mb},${connections_per_gb},${threads}" >> "$OUT"
+        echo "${stack} ${connections} connections: ${requests_per_sec} req/s (${non_2xx} non-2xx), p99 ${p99_ms} ms, +${heap_mb} MB heap (${connections_per_gb} connections/GB), ${threads} threads"
+    done
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+done
+
+echo
+echo "Results: $OUT"
+column -s, -t "$OUT"
@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time-to-ready and first-request latency for each launch mode
+#   jar - prod profile, regular startup
+#   aot - prod profile + Spring AOT initializers
+#   cds - prod profile + Spring AOT + AppCDS archive
+#
+# Usage:    scripts/startup-benchmark.sh [runs-per-mode] [mode ...]     (default: 5 runs of jar aot cds)
+# Requires: scripts/build-cds.sh has been run, .env with database access, curl
+# Output:   target/startup-benchmark.csv (mode,run,ready_ms,first_request_ms) and the median per mode
+#
+# ready_ms is the time from launch until /actuator/health/readiness reports UP (i.e. including
+# the JIT warm-up), first_request_ms is the latency of the first API request served afterwards.
+#
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS="${1:-5}"
+shift || true
+MODES=("$@")
+if [ ${#MODES[@]} -eq 0 ]; then
+    MODES=(jar aot cds)
+fi
+
+JAR=target/app/springsecurity-0.0.1-SNAPSHOT.jar
+PORT="${SERVER_PORT:-$(sed -n 's/^SERVER_PORT=//p' .env)}"
+READINESS="http://localhost:${PORT}/actuator/health/readiness"
+FIRST_REQUEST="http://localhost:${PORT}/api/v1/public/email-available?email=benchmark@example.invalid"
+OUT=target/startup-benchmark.csv
+TIMEOUT_SECONDS=120
+
+jvm_args() {
+    case "$1" in
+        jar) echo "-Dspring.profiles.active=prod" ;;
+        aot) echo "-Dspring.profiles.active=prod -Dspring.aot.enabled=true" ;;
+        cds) echo "-Dspring.profiles.active=prod -Dspring.aot.enabled=true -XX:SharedArchiveFile=target/app/application.jsa" ;;
+        *)   echo "Unknown mode: $1" >&2; exit 1 ;;
+    esac
+}
+
+echo "mode,run,ready_ms,first_request_ms" > "$OUT"
+
+for mode in "${MODES[@]}"; do
+    for run in $(seq 1 "$RUNS"); do
+        log="target/startup-${mode}-${run}.log"
+        launched_ms=$(date +%s%3N)
+        # shellcheck disable=SC2046
+        java $(jvm_args "$mode") -jar "$JAR" > "$log" 2>&1 &
+        pid=$!
+
+        # readiness answers 503 until startup and warm-up are complete
+        for _ in $(seq 1 $((TIMEOUT_SECONDS * 50))); do
+            curl -sf -o /dev/null "$READINESS" && break
+            kill -0 "$pid" 2>/dev/null || { echo "Application exited, see $log" >&2; exit 1; }
+            sleep 0.02
+        done
+        ready_ms=$(( $(date +%s%3N) - launched_ms ))
+
+        first_request_ms=$(curl -s -o /dev/null -w '%{time_total}' "$FIRST_REQUEST" | awk '{ printf "%d", $1 * 1000 }')
+
+        kill "$pid"
+        wait "$pid" 2>/dev/null || true
+
+        echo "${mode},${run},${ready_ms},${first_request_ms}" >> "$OUT"
+        echo "${mode} run ${run}: ready ${ready_ms} ms, first request ${first_request_ms} ms"
+    done
+done
+
+echo
+echo "Median per mode (ready_ms, first_request_ms):"
+for mode in "${MODES[@]}"; do
+    ready=$(awk -F, -v m="$mode" '$1 == m { print $3 }' "$OUT" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+    first=$(awk -F, -v m="$mode" '$1 == m { print $4 }' "$OUT" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')
+    echo "  ${mode}: ${ready} ms, ${first} ms"
+done
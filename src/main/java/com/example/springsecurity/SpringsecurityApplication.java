@@ -2,8 +2,10 @@ package com.example.springsecurity;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling       // StatsService reconciliation and checkpoints
 public class SpringsecurityApplication {
 
 	public static void main(String[] args) {
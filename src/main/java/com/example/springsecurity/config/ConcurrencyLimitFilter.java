@@ -0,0 +1,142 @@
+package com.example.springsecurity.config;
+
+import com.example.springsecurity.util.AdaptiveConcurrencyLimiter;
+import io.jsonwebtoken.JwtException;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ *********************************************************************************************
+ * Admission control placed ahead of JwtAuthFilter in the security filter chain
+ * - Each route class (/public, /user, /admin) has its own AdaptiveConcurrencyLimiter
+ * - Requests above the learned limit are shed immediately with 503 + Retry-After,
+ *   instead of queueing on Tomcat threads while the database is slow
+ * - Only server-side failures (5xx, or an exception other than an authentication failure)
+ *   count as drops: bad or expired tokens must not be able to shrink the limits
+ * - Other paths (e.g. /uploads) are not limited
+ *********************************************************************************************
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)     // WebFlux variant: see src/reactive
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public enum RouteClass {
+        PUBLIC("/public/"),
+        USER("/user/"),
+        ADMIN("/admin/");
+
+        private final String prefix;
+
+        RouteClass(String prefix) {
+            this.prefix = SecurityConfig.API_ENDPOINT.concat(prefix);
+        }
+    }
+
+    @Value("${app.concurrency.enabled:true}")
+    private boolean enabled;
+    @Value("${app.concurrency.initial-limit:20}")
+    private int initialLimit;
+    @Value("${app.concurrency.min-limit:2}")
+    private int minLimit;
+    @Value("${app.concurrency.public.max-limit:200}")
+    private int publicMaxLimit;
+    @Value("${app.concurrency.user.max-limit:200}")
+    private int userMaxLimit;
+    @Value("${app.concurrency.admin.max-limit:20}")
+    private int adminMaxLimit;
+
+    private final Map<RouteClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(RouteClass.class);
+
+    @PostConstruct      // one limiter per route class so a slow class can't starve the others
+    public void init() {
+        limiters.put(RouteClass.PUBLIC, newLimiter(publicMaxLimit));
+        limiters.put(RouteClass.USER, newLimiter(userMaxLimit));
+        limiters.put(RouteClass.ADMIN, newLimiter(adminMaxLimit));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+
+        AdaptiveConcurrencyLimiter limiter = enabled ? limiterFor(request.getRequestURI()) : null;
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            shed(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean didDrop = false;
+        try {
+            filterChain.doFilter(request, response);
+            didDrop = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();     // includes 503/504 timeouts
+        } catch (ServletException | IOException | RuntimeException ex) {
+            didDrop = !isClientFailure(ex);
+            throw ex;
+        } finally {
+            limiter.release(System.nanoTime() - start, didDrop);
+        }
+    }
+
+    // returns the current limit, in-flight count and shed count per route class
+    public Map<String, Map<String, Object>> getStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        limiters.forEach((routeClass, limiter) -> {
+            Map<String, Object> limiterStats = new LinkedHashMap<>();
+            limiterStats.put("limit", limiter.getLimit());
+            limiterStats.put("inFlight", limiter.getInFlight());
+            limiterStats.put("rejected", limiter.getRejected());
+            stats.put(routeClass.name().toLowerCase(), limiterStats);
+        });
+        return stats;
+    }
+
+    private AdaptiveConcurrencyLimiter limiterFor(String uri) {
+        for (RouteClass routeClass : RouteClass.values()) {
+            if (uri.startsWith(routeClass.prefix)) {
+                return limiters.get(routeClass);
+            }
+        }
+        return null;
+    }
+
+    // failures caused by the request's credentials say nothing about the server's capacity
+    private static boolean isClientFailure(Throwable ex) {
+        Throwable cause = (ex instanceof ServletException && ex.getCause() != null) ? ex.getCause() : ex;
+        return cause instanceof AuthenticationException
+                || cause instanceof AccessDeniedException
+                || cause instanceof JwtException;
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(int maxLimit) {
+        return new AdaptiveConcurrencyLimiter(Math.min(initialLimit, maxLimit), Math.min(minLimit, maxLimit), maxLimit);
+    }
+
+    private void shed(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error:\":\"Server is busy. Please retry shortly.\"}");
+    }
+
+}
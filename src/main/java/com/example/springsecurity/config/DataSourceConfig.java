@@ -0,0 +1,83 @@
+package com.example.springsecurity.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ *********************************************************************************************
+ * Primary / read-replica DataSource, enabled with app.datasource.replica.enabled=true
+ * - The primary is built from the regular spring.datasource.* properties, its pool from
+ *   spring.datasource.hikari.* exactly as Spring Boot's auto-configured one would be
+ * - Each url in app.datasource.replica.urls becomes a replica pool, configured from
+ *   app.datasource.replica.hikari.* (pool names get the replica's index appended)
+ * - When disabled, Spring Boot's single auto-configured DataSource is used unchanged
+ *********************************************************************************************
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Value("${app.datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    // the primary pool, bound like Spring Boot's own DataSource (pool size, timeouts, pool name, ...)
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // pool settings shared by every replica
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariConfig replicaHikariConfig() {
+        return new HikariConfig();
+    }
+
+    // owns the primary and replica pools; closed by Spring on shutdown
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource, HikariConfig replicaHikariConfig,
+                                                             DataSourceProperties properties) {
+        List<String> urls = replicaUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();     // starts on first use, like the primary
+            replicaHikariConfig.copyStateTo(replica);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(urls.get(i));
+            replica.setUsername(replicaUsername.trim());
+            replica.setPassword(replicaPassword.trim());
+            replica.setPoolName((replicaHikariConfig.getPoolName() == null ? "replica" : replicaHikariConfig.getPoolName()) + "-" + i);
+            replicas.add(replica);
+        }
+
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    // the DataSource used by JPA and JdbcTemplate: defers the routing decision until the first statement
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+}
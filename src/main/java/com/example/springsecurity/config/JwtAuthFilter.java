@@ -2,11 +2,14 @@ package com.example.springsecurity.config;
 
 import com.example.springsecurity.service.UsersDetailsService;
 import com.example.springsecurity.util.JwtUtils;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -22,16 +25,26 @@ import java.io.IOException;
  *********************************************************************************************
  * Extends OncePerRequestFilter to handle incoming HTTP requests and apply security measures
  * which extracts the Authorization Header information after the key "Bearer:"
+ * - GET /user/me is authenticated from the verified token's claims alone (no user lookup),
+ *   every other request loads the user to pick up role changes and deletions
+ * - An invalid or expired token leaves the request unauthenticated (401/403 from the path rules)
  *********************************************************************************************
  */
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)     // WebFlux variant: see src/reactive
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    public static final String PROFILE_ENDPOINT = SecurityConfig.API_ENDPOINT + "/user/me";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
     @Autowired
     private JwtUtils jwtUtils;
     @Autowired
     private UsersDetailsService usersDetailsService;
+    @Autowired
+    private ReplicaLagTracker replicaLagTracker;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
@@ -40,28 +53,54 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         final String jwtToken;
         final String userEmail;
 
-        if (authHeader == null || authHeader.isBlank()) {
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        jwtToken = authHeader.substring(BEARER_PREFIX.length());     // Extract the Authorization Header after key "Bearer "
+        try {
+            userEmail = jwtUtils.extractUsername(jwtToken);
+        } catch (JwtException | IllegalArgumentException ex) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwtToken = authHeader.substring(7);     // Extract the Authorization Header after key "Bearer:"
-        userEmail = jwtUtils.extractUsername(jwtToken);
+        // read-your-writes: a user who has just written reads from the primary for the whole request
+        boolean primaryForced = replicaLagTracker.isRecentWriter(userEmail);
+        if (primaryForced) {
+            ReplicaRoutingContext.forcePrimary();
+        }
+
+        try {
+            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = isProfileRead(request) ? jwtUtils.extractUser(jwtToken) : null;
+                if (userDetails == null) {
+                    UserDetails loadedUser = usersDetailsService.loadUserByUsername(userEmail);
+                    userDetails = jwtUtils.isTokenValid(jwtToken, loadedUser) ? loadedUser : null;
+                }
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = usersDetailsService.loadUserByUsername(userEmail);
+                if (userDetails != null) {
+                    SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+                    UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities()
+                    );
+                    token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    securityContext.setAuthentication(token);
+                    SecurityContextHolder.setContext(securityContext);
+                }
+            }
 
-            if (jwtUtils.isTokenValid(jwtToken, userDetails)) {
-                SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
-                UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
-                token.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                securityContext.setAuthentication(token);
-                SecurityContextHolder.setContext(securityContext);
+            filterChain.doFilter(request, response);
+        } finally {
+            if (primaryForced) {
+                ReplicaRoutingContext.clear();
             }
         }
+    }
 
-        filterChain.doFilter(request, response);
+    private static boolean isProfileRead(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod())
+                && request.getRequestURI().equals(request.getContextPath() + PROFILE_ENDPOINT);
     }
 }
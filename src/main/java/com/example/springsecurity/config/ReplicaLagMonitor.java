@@ -0,0 +1,93 @@
+package com.example.springsecurity.config;
+
+import com.example.springsecurity.model.ReplicaHeartbeat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ *********************************************************************************************
+ * Measures replication lag with a heartbeat row (the pt-heartbeat approach)
+ * - Every heartbeat interval: write the current time on the primary, then read it back from each
+ *   replica; the difference is that replica's lag (an upper bound, to one interval)
+ * - Replicas lagging more than max-lag-ms, or failing to answer, leave the read rotation until
+ *   they catch up
+ * - The worst lag among the replicas still in rotation sizes ReplicaLagTracker's read-your-writes
+ *   window
+ * - Lag is compared against this instance's clock, so instances need synchronised clocks (NTP)
+ *********************************************************************************************
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaLagMonitor {
+
+    private static final String UPDATE_BEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?";
+    private static final String INSERT_BEAT = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)";
+    private static final String SELECT_BEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = ?";
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+    @Autowired
+    private ReplicaLagTracker replicaLagTracker;
+
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMs;
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval-ms:500}")
+    public void heartbeat() {
+        long beatAt = System.currentTimeMillis();
+        try {
+            JdbcTemplate primary = new JdbcTemplate(replicaRoutingDataSource.getPrimary());
+            if (primary.update(UPDATE_BEAT, beatAt, ReplicaHeartbeat.ID) == 0) {
+                primary.update(INSERT_BEAT, ReplicaHeartbeat.ID, beatAt);
+            }
+        } catch (DataAccessException ex) {
+            // without a fresh beat every replica would look lagging; keep the last measurement instead
+            log.warn("Replica heartbeat could not be written to the primary: {}", ex.getMessage());
+            return;
+        }
+
+        Set<String> lagging = new HashSet<>();
+        long worstLagMs = -1;
+        for (Map.Entry<String, DataSource> replica : replicaRoutingDataSource.getReplicas().entrySet()) {
+            long lagMs = measureLag(replica.getValue(), beatAt);
+            if (lagMs < 0 || lagMs > maxLagMs) {
+                lagging.add(replica.getKey());
+            } else {
+                worstLagMs = Math.max(worstLagMs, lagMs);
+            }
+        }
+
+        List<String> previousRotation = replicaRoutingDataSource.getReplicasInRotation();
+        replicaRoutingDataSource.setLaggingReplicas(lagging);
+        replicaLagTracker.setObservedLagMs(worstLagMs);
+
+        if (!previousRotation.equals(replicaRoutingDataSource.getReplicasInRotation())) {
+            log.info("Replicas in rotation: {} (lagging: {})", replicaRoutingDataSource.getReplicasInRotation(), lagging);
+        }
+    }
+
+    // lag of one replica in ms, -1 if it could not be measured
+    private long measureLag(DataSource replica, long beatAt) {
+        try {
+            List<Long> beats = new JdbcTemplate(replica).queryForList(SELECT_BEAT, Long.class, ReplicaHeartbeat.ID);
+            return beats.isEmpty() ? -1 : Math.max(0, beatAt - beats.get(0));
+        } catch (DataAccessException ex) {
+            log.warn("Replica heartbeat could not be read: {}", ex.getMessage());
+            return -1;
+        }
+    }
+
+}
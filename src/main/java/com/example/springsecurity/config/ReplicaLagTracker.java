@@ -0,0 +1,134 @@
+package com.example.springsecurity.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *********************************************************************************************
+ * Read-your-writes: decides whether a user's reads must skip the (possibly lagging) replicas
+ * - AuthService records a write after sign-up and profile updates
+ * - The write time travels with the client in the "last_write" cookie, so the user's next
+ *   request is pinned to the primary whichever instance serves it (no sticky sessions needed);
+ *   an in-JVM map covers the rest of the writing request and clients that drop the cookie
+ * - The pinning window follows the replica lag measured by ReplicaLagMonitor (plus one heartbeat
+ *   interval), capped at "app.datasource.replica.max-lag-ms"; until a measurement exists, and
+ *   without replicas, the cap itself is used
+ * - A forged cookie can only pin its sender to the primary for at most the cap
+ *********************************************************************************************
+ */
+@Component
+public class ReplicaLagTracker {
+
+    public static final String LAST_WRITE_COOKIE = "last_write";
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+
+    @Value("${app.datasource.replica.max-lag-ms:2000}")
+    private long maxLagMs;
+    @Value("${app.datasource.replica.heartbeat-interval-ms:500}")
+    private long heartbeatIntervalMs;
+
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile long observedLagMs = -1;      // worst lag among the replicas in rotation, -1 = unknown
+
+    public void recordWrite(String email) {
+        if (email == null) {
+            return;
+        }
+        lastWrites.put(email, System.nanoTime());
+        setLastWriteCookie();
+
+        // keep the map bounded under heavy write traffic
+        if (lastWrites.size() > SWEEP_THRESHOLD) {
+            long now = System.nanoTime();
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > TimeUnit.MILLISECONDS.toNanos(maxLagMs));
+        }
+    }
+
+    // returns true if the user wrote within the replica lag window, here or (per the cookie) on any instance
+    public boolean isRecentWriter(String email) {
+        if (email == null) {
+            return false;
+        }
+        long windowMs = windowMs();
+
+        Long writtenAt = lastWrites.get(email);
+        if (writtenAt != null) {
+            if (System.nanoTime() - writtenAt <= TimeUnit.MILLISECONDS.toNanos(windowMs)) {
+                return true;
+            }
+            lastWrites.remove(email, writtenAt);
+        }
+
+        long cookieWrittenAt = lastWriteFromCookie();
+        return cookieWrittenAt > 0 && System.currentTimeMillis() - cookieWrittenAt <= windowMs;
+    }
+
+    // called by ReplicaLagMonitor after each heartbeat, -1 when no replica could be measured
+    public void setObservedLagMs(long observedLagMs) {
+        this.observedLagMs = observedLagMs;
+    }
+
+    public long getObservedLagMs() {
+        return observedLagMs;
+    }
+
+    // how long after a write the writer's reads stay on the primary
+    public long windowMs() {
+        long lag = observedLagMs;
+        return (lag < 0) ? maxLagMs : Math.min(maxLagMs, lag + heartbeatIntervalMs);
+    }
+
+    private void setLastWriteCookie() {
+        ServletRequestAttributes attributes = currentRequest();
+        HttpServletResponse response = (attributes == null) ? null : attributes.getResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        ResponseCookie cookie = ResponseCookie.from(LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis()))
+                .path(SecurityConfig.API_ENDPOINT)
+                .maxAge(Duration.ofMillis(maxLagMs).plusSeconds(1))     // the browser forgets it once the cap has passed
+                .httpOnly(true)
+                .sameSite("Strict")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    private long lastWriteFromCookie() {
+        ServletRequestAttributes attributes = currentRequest();
+        HttpServletRequest request = (attributes == null) ? null : attributes.getRequest();
+        Cookie[] cookies = (request == null) ? null : request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // bound by Spring's RequestContextFilter ahead of the security filters; absent off the servlet request path
+    private static ServletRequestAttributes currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return (attributes instanceof ServletRequestAttributes servletAttributes) ? servletAttributes : null;
+    }
+
+}
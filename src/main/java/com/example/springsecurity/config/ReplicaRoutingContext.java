@@ -0,0 +1,47 @@
+package com.example.springsecurity.config;
+
+import java.util.function.Supplier;
+
+/**
+ *********************************************************************************************
+ * Thread-bound switch that pins read-only work to the primary database
+ * - Used for read-your-writes: a user who has just written must not read a lagging replica
+ * - ReplicaRoutingDataSource consults it when the physical connection is first needed
+ *********************************************************************************************
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static boolean isPrimaryForced() {
+        return Boolean.TRUE.equals(PRIMARY_FORCED.get());
+    }
+
+    // pins every connection opened by the current thread to the primary until clear() is called
+    public static void forcePrimary() {
+        PRIMARY_FORCED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_FORCED.remove();
+    }
+
+    // runs the work against the primary and restores the previous routing afterwards (safe to nest)
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.example.springsecurity.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *********************************************************************************************
+ * Routes @Transactional(readOnly = true) work to the replicas (round-robin) and everything else
+ * to the primary
+ * - Must be wrapped in a LazyConnectionDataSourceProxy so the lookup happens when the first
+ *   statement runs, i.e. after the transaction's read-only flag is known
+ * - ReplicaRoutingContext.forcePrimary() overrides the read-only routing (read-your-writes)
+ * - Replicas that ReplicaLagMonitor reports as lagging are taken out of the rotation until they
+ *   catch up; with none left, read-only work goes to the primary
+ *********************************************************************************************
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA_PREFIX = "replica-";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+    private final List<DataSource> dataSources = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> replicasInRotation;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.primary = primary;
+        dataSources.add(primary);
+
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = REPLICA_PREFIX + i;
+            targets.put(key, replicas.get(i));
+            this.replicas.put(key, replicas.get(i));
+            dataSources.add(replicas.get(i));
+        }
+        replicasInRotation = List.copyOf(this.replicas.keySet());
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> rotation = replicasInRotation;
+        if (rotation.isEmpty()
+                || ReplicaRoutingContext.isPrimaryForced()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        return rotation.get(Math.floorMod(nextReplica.getAndIncrement(), rotation.size()));
+    }
+
+    // the underlying pools, bypassing the routing (used by ReplicaLagMonitor's heartbeat)
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return Collections.unmodifiableMap(replicas);
+    }
+
+    // replaces the set of replicas kept out of the rotation
+    public void setLaggingReplicas(Set<String> laggingKeys) {
+        replicasInRotation = replicas.keySet().stream()
+                .filter(key -> !laggingKeys.contains(key))
+                .toList();
+    }
+
+    public List<String> getReplicasInRotation() {
+        return replicasInRotation;
+    }
+
+    // closes the underlying connection pools when the application context shuts down
+    @Override
+    public void close() throws Exception {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+}
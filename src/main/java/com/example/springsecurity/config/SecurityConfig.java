@@ -1,7 +1,9 @@
 package com.example.springsecurity.config;
 
+import com.example.springsecurity.jfr.InstrumentedPasswordEncoder;
 import com.example.springsecurity.service.UsersDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -18,6 +20,7 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)     // WebFlux variant: see src/reactive
 @EnableWebSecurity
 public class SecurityConfig {
 
@@ -28,6 +31,8 @@ public class SecurityConfig {
     private UsersDetailsService usersDetailsService;
     @Autowired
     private JwtAuthFilter jwtAuthFilter;
+    @Autowired
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
 
     // specifies the security filters meant for authentication and authorization routes
     // returns the built security configuration(s)
@@ -37,13 +42,15 @@ public class SecurityConfig {
         httpSecurity.csrf(AbstractHttpConfigurer::disable)
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(request -> request.requestMatchers(API_ENDPOINT.concat("/public/**"), API_ENDPOINT.concat("/uploads/**")).permitAll()
+                        .requestMatchers("/actuator/health/**").permitAll()     // liveness/readiness probes
                         .requestMatchers(API_ENDPOINT.concat("/user/**")).hasAnyAuthority("USER")
                         .requestMatchers(API_ENDPOINT.concat("/admin/**")).hasAnyAuthority("ADMIN")
                         .requestMatchers(API_ENDPOINT.concat("/restricted/**")).hasAnyAuthority("USER", "ADMIN")
                         .anyRequest().authenticated())
                 .sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthFilter.class);     // shed excess load before any DB work
 
         return httpSecurity.build();
     }
@@ -62,9 +69,10 @@ public class SecurityConfig {
     }
 
     // returns a new instance of a BCryptPasswordEncoder to securely encode passwords
+    // wrapped to record each encode/match as a JFR PasswordEvent (no-op unless enabled in the recording)
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new InstrumentedPasswordEncoder(new BCryptPasswordEncoder());
     }
 
     // returns the AuthenticationManager bean for handling user authentication.
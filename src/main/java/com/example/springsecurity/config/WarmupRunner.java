@@ -0,0 +1,101 @@
+package com.example.springsecurity.config;
+
+import com.example.springsecurity.dto.UserDto;
+import com.example.springsecurity.model.EnumRole;
+import com.example.springsecurity.model.User;
+import com.example.springsecurity.util.JwtUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+
+/**
+ *********************************************************************************************
+ * JIT warm-up of the authentication hot paths, run before the application reports ready
+ * - Spring Boot only switches readiness to ACCEPTING_TRAFFIC after all ApplicationRunners
+ *   have returned, so /actuator/health/readiness stays OUT_OF_SERVICE while this runs
+ * - Exercises token issuance/validation (JwtUtils), BCrypt matches and UserDto serialization
+ *   on a synthetic user that is never persisted: no real user data and no DB access
+ * - Bounded by an iteration count and a maximum duration, whichever comes first
+ *********************************************************************************************
+ */
+@Slf4j
+@Component
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final String WARMUP_PASSWORD = "warmup-password";
+
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+    @Value("${app.warmup.iterations:10000}")
+    private int iterations;
+    @Value("${app.warmup.password-iterations:20}")
+    private int passwordIterations;
+    @Value("${app.warmup.max-duration-ms:15000}")
+    private long maxDurationMs;
+
+    @Override
+    public void run(ApplicationArguments args) throws JsonProcessingException {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMs * 1_000_000;
+
+        User user = User.builder()
+                .userName("warmup")
+                .email("warmup@warmup.invalid")
+                .password(passwordEncoder.encode(WARMUP_PASSWORD))
+                .role(EnumRole.USER)
+                .build();
+
+        // BCrypt: each match runs 2^strength rounds, so a few calls are enough to compile it
+        int passwordMatches = 0;
+        while (passwordMatches < passwordIterations && System.nanoTime() < deadline) {
+            passwordEncoder.matches(WARMUP_PASSWORD, user.getPassword());
+            passwordMatches++;
+        }
+
+        // token issuance, parsing/validation and response serialization, as in sign-in and JwtAuthFilter
+        int completed = 0;
+        long checksum = 0;      // consumed below so the JIT can't discard the work
+        while (completed < iterations && System.nanoTime() < deadline) {
+            String token = jwtUtils.generateToken(user.getUserName(), user);
+            String refreshToken = jwtUtils.generateRefreshToken(new HashMap<>(), user.getUserName(), user);
+
+            if (jwtUtils.isTokenValid(token, user)) {
+                UserDto userDto = UserDto.builder()
+                        .userName(user.getUserName())
+                        .email(jwtUtils.extractUsername(refreshToken))
+                        .token(token)
+                        .refreshToken(refreshToken)
+                        .expirationTime(jwtUtils.extractExpirationTime(token))
+                        .message("success")
+                        .role(user.getRole())
+                        .build();
+                checksum += objectMapper.writeValueAsString(userDto).length();
+            }
+            completed++;
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("JIT warm-up finished in {} ms: {} password matches, {} token/serialization iterations{} (checksum {})",
+                elapsedMs, passwordMatches, completed,
+                System.nanoTime() >= deadline ? ", stopped at max-duration-ms" : "", checksum);
+    }
+
+}
@@ -1,12 +1,14 @@
 package com.example.springsecurity.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)     // WebFlux variant: see src/reactive
 public class WebConfig implements WebMvcConfigurer {
 
     @Value("${file.upload-dir}")
@@ -57,7 +59,9 @@ public class WebConfig implements WebMvcConfigurer {
                         "User-Agent",                                       // Identify sender (optional, for logging or analytics)
                         "X-CSRF-Token",                                     // IMPORTANT: Token passed to validate against CSRF
                         "Origin",                                           // Indicate domain from which the request originates
-                        "Referer")                                          // Identify URL page that referred the request (source)
+                        "Referer",                                          // Identify URL page that referred the request (source)
+                        "If-None-Match")                                    // Revalidate a cached GET /user/me via its ETag
+                .exposedHeaders("ETag")                                     // Let browser clients read the ETag of GET /user/me
                 .maxAge(3600);                                              // Set max age (sec) for CORS response cached by browser
     }
 
@@ -0,0 +1,43 @@
+package com.example.springsecurity.controller;
+
+import com.example.springsecurity.config.ConcurrencyLimitFilter;
+import com.example.springsecurity.service.AuditService;
+import com.example.springsecurity.service.StatsService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminController {
+
+    @Autowired
+    private AuditService auditService;
+    @Autowired
+    private ObjectProvider<ConcurrencyLimitFilter> concurrencyLimitFilter;     // servlet stack only
+    @Autowired
+    private StatsService statsService;
+
+    @GetMapping("/stats")           /** admin endpoint for the dashboard statistics (served from memory) */
+    public ResponseEntity<Object> stats() {
+        return new ResponseEntity<>(statsService.getStats(), HttpStatus.OK);
+    }
+
+    @GetMapping("/audit")           /** admin endpoint for the audit pipeline counters */
+    public ResponseEntity<Object> audit() {
+        return new ResponseEntity<>(auditService.getStats(), HttpStatus.OK);
+    }
+
+    @GetMapping("/concurrency")     /** admin endpoint for the adaptive concurrency limits per route class */
+    public ResponseEntity<Object> concurrency() {
+        ConcurrencyLimitFilter filter = concurrencyLimitFilter.getIfAvailable();
+        return new ResponseEntity<>(filter == null ? Map.of() : filter.getStats(), HttpStatus.OK);
+    }
+
+}
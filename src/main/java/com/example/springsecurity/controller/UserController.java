@@ -4,23 +4,41 @@ import com.example.springsecurity.exception.EmailAlreadyExistsException;
 import com.example.springsecurity.exception.ResourceNotFoundException;
 import com.example.springsecurity.model.User;
 import com.example.springsecurity.service.AuthService;
+import com.example.springsecurity.service.EmailAvailabilityService;
+import com.example.springsecurity.service.ProfileService;
+import com.example.springsecurity.service.UsersDetailsService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.Nullable;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)     // WebFlux variant: see src/reactive
 public class UserController {
 
     @Autowired
     private AuthService authService;
+    @Autowired
+    private ProfileService profileService;
+    @Autowired
+    private UsersDetailsService usersDetailsService;
+    @Autowired
+    private EmailAvailabilityService emailAvailabilityService;
 
     @PostMapping("/public/signup")  /** public endpoint for signups */
     public ResponseEntity<Object> signup(@Valid @RequestBody User user) throws EmailAlreadyExistsException {
@@ -32,6 +50,46 @@ public class UserController {
         return new ResponseEntity<>(authService.signIn(user), HttpStatus.OK);
     }
 
+    @GetMapping("/public/email-available")  /** public endpoint for checking whether an email can be used to sign up */
+    public ResponseEntity<Object> emailAvailable(@RequestParam(value = "email", required = false) String email,
+                                                 HttpServletRequest request) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        if (!emailAvailabilityService.tryAcquire(request.getRemoteAddr())) {
+            response.put("error:", "Too many requests. Please slow down.");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "60").body(response);
+        }
+
+        if (email == null || email.isBlank()) {
+            response.put("error:", "email cannot be blank.");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
+
+        response.put("email", email);
+        response.put("available", emailAvailabilityService.isAvailable(email));
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @GetMapping("/user/me")         /** user-authenticated endpoint for reading own profile (supports If-None-Match) */
+    public ResponseEntity<Object> me(@AuthenticationPrincipal User user, WebRequest webRequest) {
+
+        // The principal comes from the token's claims: a profile cached at (or after) the token's version
+        // answers both If-None-Match and the full body without any DB query
+        ProfileService.CachedProfile profile = profileService.getCachedProfile(user);
+        if (profile == null) {
+            // Miss: load the user once (read-only, replica-aware). The ETag then reflects the stored row,
+            // so a token older than the row can never revalidate a stale copy
+            profile = profileService.cacheProfile((User) usersDetailsService.loadUserByUsername(user.getEmail()));
+        }
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();   // clients must revalidate with the ETag
+
+        if (webRequest.checkNotModified(profile.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(profile.etag()).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().eTag(profile.etag()).cacheControl(cacheControl).body(profile.profile());
+    }
+
     @PutMapping("/user/update")     /** user-authenticated endpoint for updating user profile */
     public ResponseEntity<Object> update(
             @RequestParam("data") String data, // "{'userName': 'JohnDoe', 'email': "jd@gmail.com'}"
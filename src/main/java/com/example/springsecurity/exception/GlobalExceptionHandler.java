@@ -1,6 +1,7 @@
 package com.example.springsecurity.exception;
 
 import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
@@ -19,6 +20,7 @@ import org.springframework.web.servlet.resource.NoResourceFoundException;
 import java.util.HashMap;
 import java.util.Map;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)     // WebFlux variant: see src/reactive
 @Order(Ordered.HIGHEST_PRECEDENCE)      // when exceptions occur, the GlobalExceptionHandler takes precedence
 @RestControllerAdvice                   // addressing exceptions in the app globally
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
@@ -0,0 +1,30 @@
+package com.example.springsecurity.jfr;
+
+import jdk.jfr.*;
+
+/**
+ *********************************************************************************************
+ * JFR event: one profile image written to the upload directory by AuthService.update
+ * - Disabled unless a recording uses the jfr/security.jfc settings (or enables it explicitly)
+ *********************************************************************************************
+ */
+@Name("com.example.springsecurity.ImageWrite")
+@Label("Profile Image Write")
+@Category({"Spring Security App", "File I/O"})
+@Description("Multipart profile image transferred to the upload directory")
+@Enabled(false)
+@StackTrace(false)
+public class ImageWriteEvent extends Event {
+
+    @Label("Outcome")
+    @Description("WRITTEN or the simple name of the exception raised")
+    public String outcome;
+
+    @Label("Image Size")
+    @DataAmount
+    public long payloadSize;
+
+    @Label("Content Type")
+    public String contentType;
+
+}
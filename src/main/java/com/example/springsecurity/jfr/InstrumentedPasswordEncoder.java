@@ -0,0 +1,65 @@
+package com.example.springsecurity.jfr;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ *********************************************************************************************
+ * PasswordEncoder decorator that emits a PasswordEvent around each encode/matches call
+ * - Behaviour is the delegate's; only timing and outcome are recorded
+ *********************************************************************************************
+ */
+public class InstrumentedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    public InstrumentedPasswordEncoder(PasswordEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordEvent event = new PasswordEvent();
+        event.begin();
+        String outcome = "ERROR";
+        String encoded = null;
+        try {
+            encoded = delegate.encode(rawPassword);
+            outcome = "ENCODED";
+            return encoded;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "ENCODE";
+                event.outcome = outcome;
+                event.payloadSize = (encoded == null) ? 0 : encoded.length();
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordEvent event = new PasswordEvent();
+        event.begin();
+        String outcome = "ERROR";
+        try {
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            outcome = matches ? "MATCH" : "MISMATCH";
+            return matches;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = "MATCH";
+                event.outcome = outcome;
+                event.payloadSize = (encodedPassword == null) ? 0 : encodedPassword.length();
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.example.springsecurity.jfr;
+
+import jdk.jfr.*;
+
+/**
+ *********************************************************************************************
+ * JFR event: one password encode or match (BCrypt)
+ * - Disabled unless a recording uses the jfr/security.jfc settings (or enables it explicitly)
+ *********************************************************************************************
+ */
+@Name("com.example.springsecurity.Password")
+@Label("Password Hashing")
+@Category({"Spring Security App", "Security"})
+@Description("PasswordEncoder encode or matches call")
+@Enabled(false)
+@StackTrace(false)
+public class PasswordEvent extends Event {
+
+    @Label("Operation")
+    @Description("ENCODE or MATCH")
+    public String operation;
+
+    @Label("Outcome")
+    @Description("ENCODED, MATCH, MISMATCH or ERROR")
+    public String outcome;
+
+    @Label("Hash Size")
+    @DataAmount
+    public int payloadSize;
+
+}
@@ -0,0 +1,27 @@
+package com.example.springsecurity.jfr;
+
+import jdk.jfr.*;
+
+/**
+ *********************************************************************************************
+ * JFR event: one JWT signature verification and claims parse in JwtUtils
+ * - Disabled unless a recording uses the jfr/security.jfc settings (or enables it explicitly)
+ *********************************************************************************************
+ */
+@Name("com.example.springsecurity.TokenVerification")
+@Label("Token Verification")
+@Category({"Spring Security App", "Security"})
+@Description("JWT signature verification and claims parsing")
+@Enabled(false)
+@StackTrace(false)
+public class TokenVerificationEvent extends Event {
+
+    @Label("Outcome")
+    @Description("VALID, or the simple name of the JwtException raised")
+    public String outcome;
+
+    @Label("Token Size")
+    @DataAmount
+    public int payloadSize;
+
+}
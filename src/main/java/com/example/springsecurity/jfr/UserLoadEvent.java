@@ -0,0 +1,31 @@
+package com.example.springsecurity.jfr;
+
+import jdk.jfr.*;
+
+/**
+ *********************************************************************************************
+ * JFR event: one UsersDetailsService.loadUserByUsername lookup
+ * - Disabled unless a recording uses the jfr/security.jfc settings (or enables it explicitly)
+ *********************************************************************************************
+ */
+@Name("com.example.springsecurity.UserLoad")
+@Label("User Load")
+@Category({"Spring Security App", "Database"})
+@Description("User lookup by email for authentication")
+@Enabled(false)
+@StackTrace(false)
+public class UserLoadEvent extends Event {
+
+    @Label("Outcome")
+    @Description("FOUND, NOT_FOUND or ERROR")
+    public String outcome;
+
+    @Label("Username Size")
+    @DataAmount
+    public int payloadSize;
+
+    @Label("Primary Forced")
+    @Description("Read-your-writes routed the lookup to the primary database")
+    public boolean primaryForced;
+
+}
@@ -0,0 +1,7 @@
+package com.example.springsecurity.model;
+
+public enum AuditEventType {
+    SIGN_UP,    // account registration via AuthService.signUp
+    SIGN_IN,    // authentication attempt via AuthService.signIn
+    UPDATE      // profile change via AuthService.update
+}
@@ -0,0 +1,62 @@
+package com.example.springsecurity.model;
+
+import jakarta.persistence.*;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ *********************************************************************************************
+ * Append-only record of a security relevant event (sign-in, sign-up, profile update)
+ * - The entity only exists so that Hibernate manages the "security_audit_log" table
+ * - Rows are inserted in JDBC batches by AuditService, never updated or deleted
+ *********************************************************************************************
+ */
+@Entity
+@Immutable                          // Hibernate never issues UPDATEs for this entity
+@Table(name = "security_audit_log", indexes = @Index(name = "idx_audit_occurred_at", columnList = "occurred_at"))
+@NoArgsConstructor
+@Getter                             // No setters: audit rows are append-only
+public class AuditLog {
+
+    public static final int EMAIL_LENGTH = 255;
+    public static final int DETAIL_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private AuditEventType eventType;
+
+    @Column(name = "email", length = EMAIL_LENGTH)
+    private String email;
+
+    @Column(name = "success", nullable = false)
+    private boolean success;
+
+    @Column(name = "detail", length = DETAIL_LENGTH)
+    private String detail;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    @Builder
+    public AuditLog(AuditEventType eventType,
+                    String email,
+                    boolean success,
+                    String detail,
+                    LocalDateTime occurredAt)
+    {
+        this.eventType = eventType;
+        this.email = email;
+        this.success = success;
+        this.detail = detail;
+        this.occurredAt = (occurredAt == null) ? LocalDateTime.now() : occurredAt;
+    }
+
+}
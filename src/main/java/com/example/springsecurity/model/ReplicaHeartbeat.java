@@ -0,0 +1,30 @@
+package com.example.springsecurity.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ *********************************************************************************************
+ * Single-row heartbeat used by ReplicaLagMonitor to measure replication lag
+ * - Written on the primary every heartbeat interval, read back from each replica;
+ *   lag = now - beatAt as seen by the replica
+ * - Only mapped so that the table is created with the rest of the schema;
+ *   ReplicaLagMonitor reads and writes it with plain JDBC, bypassing the replica routing
+ *********************************************************************************************
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+@NoArgsConstructor
+@Getter
+public class ReplicaHeartbeat {
+
+    public static final int ID = 1;
+
+    @Id
+    private int id;
+
+    @Column(nullable = false)
+    private long beatAt;        // epoch millis of the writing instance
+
+}
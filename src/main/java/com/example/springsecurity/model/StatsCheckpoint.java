@@ -0,0 +1,43 @@
+package com.example.springsecurity.model;
+
+import jakarta.persistence.*;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ *********************************************************************************************
+ * One row per dashboard counter, periodically checkpointed by StatsService
+ * - metric is the counter's key, e.g. "logins.hour.2026-01-31T14" or "updates.day.2026-01-31"
+ * - Lets counters that can't be derived from the users table (logins, updates) survive restarts
+ * - value is the sum over every instance: each one adds its own increments (JDBC upsert),
+ *   the mapping only creates the table
+ *********************************************************************************************
+ */
+@Entity
+@Table(name = "stats_checkpoint")
+@NoArgsConstructor
+@Getter
+public class StatsCheckpoint {
+
+    @Id
+    @Column(length = 64)
+    private String metric;
+
+    @Column(name = "metric_value", nullable = false)     // "value" is a keyword in several SQL dialects
+    private long value;
+
+    @Column(nullable = false)
+    private LocalDateTime checkpointedAt;
+
+    @Builder
+    public StatsCheckpoint(String metric, long value, LocalDateTime checkpointedAt)
+    {
+        this.metric = metric;
+        this.value = value;
+        this.checkpointedAt = (checkpointedAt == null) ? LocalDateTime.now() : checkpointedAt;
+    }
+
+}
@@ -18,7 +18,7 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_created_date_time", columnList = "created_date_time"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter                             // Lombok generated getters (avoid @Data for entities; performance issues)
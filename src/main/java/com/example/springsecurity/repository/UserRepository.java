@@ -1,10 +1,36 @@
 package com.example.springsecurity.repository;
 
 import com.example.springsecurity.model.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    boolean existsByEmail(String email);
+
+    // streams every email without loading entities; Integer.MIN_VALUE makes MySQL Connector/J stream row by row
+    // must be consumed inside a transaction and closed afterwards
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
+    // [role, count] rows; used to seed and reconcile the admin statistics, not per request
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countUsersByRole();
+
+    // [day, count] rows of sign-ups since the given time; served by the created_date_time index
+    @Query("SELECT CAST(u.createdDateTime AS LocalDate), COUNT(u) FROM User u " +
+            "WHERE u.createdDateTime >= :since GROUP BY CAST(u.createdDateTime AS LocalDate)")
+    List<Object[]> countSignUpsPerDaySince(@Param("since") LocalDateTime since);
+}
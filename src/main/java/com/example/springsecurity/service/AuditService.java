@@ -0,0 +1,206 @@
+package com.example.springsecurity.service;
+
+import com.example.springsecurity.model.AuditEventType;
+import com.example.springsecurity.model.AuditLog;
+import com.example.springsecurity.util.RingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *********************************************************************************************
+ * Asynchronous security audit pipeline
+ * - Request threads publish() into a bounded lock-free RingBuffer and return immediately
+ * - A single background writer drains the buffer and inserts rows in JDBC batches
+ * - When the buffer is full the event is dropped and counted; requests never wait on the DB
+ * - Client-supplied values are truncated to the column length, and a failed batch is retried
+ *   row by row, so one bad event can't take the rest of its batch down with it
+ * - Pending events are flushed when the application context shuts down
+ *********************************************************************************************
+ */
+@Slf4j
+@Service
+public class AuditService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO security_audit_log (event_type, email, success, detail, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Value("${audit.buffer-capacity:8192}")
+    private int bufferCapacity;
+    @Value("${audit.batch-size:256}")
+    private int batchSize;
+    @Value("${audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+    @Value("${audit.shutdown-timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    private RingBuffer<AuditLog> buffer;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAccumulator peakDepth = new LongAccumulator(Math::max, 0);
+
+    @PostConstruct      // start the background writer once the JdbcTemplate is injected
+    public void init() {
+        this.buffer = new RingBuffer<>(bufferCapacity);
+        this.running = true;
+        this.writer = new Thread(this::drainLoop, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // records an event without blocking; the event is dropped (and counted) if the buffer is full
+    public void publish(AuditEventType eventType, String email, boolean success, String detail) {
+        AuditLog event = AuditLog.builder()
+                .eventType(eventType)
+                .email(truncate(email, AuditLog.EMAIL_LENGTH))
+                .success(success)
+                .detail(truncate(detail, AuditLog.DETAIL_LENGTH))
+                .build();
+
+        if (!buffer.offer(event)) {
+            dropped.increment();
+            return;
+        }
+        published.increment();
+
+        int depth = buffer.size();
+        peakDepth.accumulate(depth);
+        if (depth >= batchSize) {
+            LockSupport.unpark(writer);     // a full batch is waiting, no need to sit out the flush interval
+        }
+    }
+
+    // returns the pipeline counters, exposed through the admin API
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("capacity", (long) buffer.capacity());
+        stats.put("depth", (long) buffer.size());           // back-pressure: events waiting to be written
+        stats.put("peakDepth", peakDepth.get());
+        stats.put("published", published.sum());
+        stats.put("dropped", dropped.sum());                // events rejected because the buffer was full
+        stats.put("written", written.sum());
+        stats.put("failed", failed.sum());                  // events that could not be inserted
+        return stats;
+    }
+
+    private void drainLoop() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (flush(batch) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+    }
+
+    // writes up to one batch; returns the number of events taken from the buffer
+    private int flush(List<AuditLog> batch) {
+        int drained = buffer.drainTo(batch, batchSize);
+        if (drained == 0) {
+            return 0;
+        }
+        try {
+            writeBatch(batch);
+        } catch (RuntimeException ex) {
+            // the writer must outlive any single failure, otherwise every later event is dropped
+            failed.add(batch.size());
+            log.error("Failed to write {} audit events, writer continues", batch.size(), ex);
+        } finally {
+            batch.clear();
+        }
+        return drained;
+    }
+
+    private void writeBatch(List<AuditLog> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), AuditService::bind);
+            written.add(batch.size());
+        } catch (DataAccessException ex) {
+            log.warn("Failed to write {} audit events as a batch, retrying row by row: {}", batch.size(), ex.getMessage());
+            writeRows(batch, updateCounts(ex));
+        }
+    }
+
+    // fallback after a failed batch: retries only the rows the driver didn't report as inserted,
+    // so a rewritten multi-row INSERT loses just the offending rows and a partial batch isn't duplicated
+    private void writeRows(List<AuditLog> batch, int[] updateCounts) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (i < updateCounts.length && updateCounts[i] != Statement.EXECUTE_FAILED) {
+                written.increment();
+                continue;
+            }
+            AuditLog event = batch.get(i);
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+                written.increment();
+            } catch (DataAccessException ex) {
+                failed.increment();
+                log.warn("Failed to write {} audit event: {}", event.getEventType(), ex.getMessage());
+            }
+        }
+    }
+
+    // per-row results of a failed batch, empty when the driver reported none
+    private static int[] updateCounts(DataAccessException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchUpdateException batchUpdateException && batchUpdateException.getUpdateCounts() != null) {
+                return batchUpdateException.getUpdateCounts();
+            }
+        }
+        return new int[0];
+    }
+
+    private static void bind(PreparedStatement ps, AuditLog event) throws SQLException {
+        ps.setString(1, event.getEventType().name());
+        ps.setString(2, event.getEmail());
+        ps.setBoolean(3, event.isSuccess());
+        ps.setString(4, event.getDetail());
+        ps.setTimestamp(5, Timestamp.valueOf(event.getOccurredAt()));
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        int end = Character.isHighSurrogate(value.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;     // don't split a surrogate pair
+        return value.substring(0, end);
+    }
+
+    @PreDestroy         // stop the writer and flush whatever is still buffered before the DataSource closes
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeoutMs);
+
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (flush(batch) > 0) {
+            // keep draining until the buffer is empty
+        }
+    }
+
+}
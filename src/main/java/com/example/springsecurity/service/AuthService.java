@@ -1,16 +1,22 @@
 package com.example.springsecurity.service;
 
+import com.example.springsecurity.config.ReplicaLagTracker;
+import com.example.springsecurity.config.ReplicaRoutingContext;
 import com.example.springsecurity.dto.UserDto;
 import com.example.springsecurity.exception.EmailAlreadyExistsException;
 import com.example.springsecurity.exception.ResourceNotFoundException;
+import com.example.springsecurity.jfr.ImageWriteEvent;
+import com.example.springsecurity.model.AuditEventType;
 import com.example.springsecurity.model.User;
 import com.example.springsecurity.repository.UserRepository;
 import com.example.springsecurity.util.JwtUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -20,9 +26,12 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)     // WebFlux variant: see src/reactive
 public class AuthService {
     @Autowired
     private UserRepository userRepository;
@@ -32,12 +41,24 @@ public class AuthService {
     private PasswordEncoder passwordEncoder;
     @Autowired
     private AuthenticationManager authenticationManager;
+    @Autowired
+    private AuditService auditService;
+    @Autowired
+    private ReplicaLagTracker replicaLagTracker;
+    @Autowired
+    private ProfileService profileService;
+    @Autowired
+    private EmailAvailabilityService emailAvailabilityService;
+    @Autowired
+    private StatsService statsService;
     @Value("${file.upload-dir}")
     private String uploadDir;
 
     public User signUp(User user) throws EmailAlreadyExistsException {
 
-        if (userRepository.findByEmail(user.getEmail()).isPresent()) {
+        // write path: check against the primary, a lagging replica may not have seen a recent sign-up
+        if (ReplicaRoutingContext.onPrimary(() -> userRepository.findByEmail(user.getEmail())).isPresent()) {
+            auditService.publish(AuditEventType.SIGN_UP, user.getEmail(), false, "email already exists");
             throw new EmailAlreadyExistsException("Please use another email.");
         }
 
@@ -47,14 +68,26 @@ public class AuthService {
                 .password(passwordEncoder.encode((user.getPassword())))
                 .build();
 
-       return userRepository.save(_user);
+        User savedUser = userRepository.save(_user);
+        replicaLagTracker.recordWrite(savedUser.getEmail());
+        emailAvailabilityService.register(savedUser.getEmail());
+        statsService.recordSignUp(savedUser.getRole());
+        auditService.publish(AuditEventType.SIGN_UP, savedUser.getEmail(), true, null);
+
+        return savedUser;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)     // authentication lookup only, may be served by a read replica
     public UserDto signIn(User user) throws ResourceAccessException{
 
         Authentication authenticationRequest = UsernamePasswordAuthenticationToken.unauthenticated(user.getEmail(), user.getPassword());
-        Authentication authenticationResponse = authenticationManager.authenticate(authenticationRequest);
+        Authentication authenticationResponse;
+        try {
+            authenticationResponse = authenticationManager.authenticate(authenticationRequest);
+        } catch (AuthenticationException ex) {
+            auditService.publish(AuditEventType.SIGN_IN, user.getEmail(), false, ex.getClass().getSimpleName());
+            throw ex;
+        }
 
         /**
          * SecurityContextHolder.getContext().setAuthentication(authenticationResponse) - logs the authenticated user
@@ -71,6 +104,9 @@ public class AuthService {
         String refreshToken = jwtUtils.generateRefreshToken(new HashMap<>(), _user.getUserName(), _user);
         Long expirationTime = jwtUtils.extractExpirationTime(token);
 
+        auditService.publish(AuditEventType.SIGN_IN, _user.getEmail(), true, null);
+        statsService.recordSignIn();
+
         UserDto userDto = UserDto.builder()
                 .userName(_user.getUserName())  // Return athenticated user userName
                 .email(_user.getEmail())        // Return athenticated user email, akin to UserDetails.getUsername());
@@ -90,26 +126,38 @@ public class AuthService {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String currentEmail = authentication.getName();
 
-        // Fetch the managed user
-        User existingUser = userRepository.findByEmail(currentEmail)
+        // Fetch the managed user from the primary, it is about to be written
+        User existingUser = ReplicaRoutingContext.onPrimary(() -> userRepository.findByEmail(currentEmail))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        // Keep track of the changed fields for the audit log (names only, never values)
+        List<String> changedFields = new ArrayList<>();
+
         // Map ONLY the fields you want to allow updating
-        if (user.getUserName() != null)
+        if (user.getUserName() != null) {
             existingUser.setUserName(user.getUserName());
+            changedFields.add("userName");
+        }
 
-        if (user.getEmail() != null)
+        if (user.getEmail() != null) {
             existingUser.setEmail(user.getEmail());
+            emailAvailabilityService.register(user.getEmail());    // the old email stays a (false) positive
+            changedFields.add("email");
+        }
 
-        if (user.getPassword() != null)
+        if (user.getPassword() != null) {
             existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
+            changedFields.add("password");
+        }
 
-        if (user.getUserBio() != null)
+        if (user.getUserBio() != null) {
             existingUser.setUserBio(user.getUserBio());
+            changedFields.add("userBio");
+        }
 
         // role should not be updated by an end user
 
-        userRepository.saveAndFlush(existingUser);
+        existingUser = userRepository.saveAndFlush(existingUser);     // managed copy, with the new updatedDateTime
 
         // Use _user.getId() to ensure user is saved
         if (image != null && !image.isEmpty() && existingUser.getId() != null) {
@@ -119,29 +167,65 @@ public class AuthService {
             String fileName = "profile_" + System.currentTimeMillis()+ "_" + image.getOriginalFilename();
             String filePath = uploadDir + File.separator + fileName;
             File imageFile = new File(filePath);
-            image.transferTo(imageFile.toPath());
+            writeImage(image, imageFile);
 
             existingUser.setUserProfileImage(filePath);
-            userRepository.save(existingUser);
+            existingUser = userRepository.saveAndFlush(existingUser);
+            changedFields.add("userProfileImage");
         }
 
+        // cache the new GET /user/me profile; the re-issued token below carries its updatedDateTime
+        profileService.cacheProfile(existingUser);
+
+        // read-your-writes: route this user's next reads to the primary until the replicas catch up
+        replicaLagTracker.recordWrite(currentEmail);
+        replicaLagTracker.recordWrite(existingUser.getEmail());
+
+        auditService.publish(AuditEventType.UPDATE, currentEmail, true, String.join(",", changedFields));
+        statsService.recordProfileUpdate();
+
+        // re-issue the tokens: the email (subject) and the updatedDateTime claim may have changed
+        String token = jwtUtils.generateToken(existingUser.getUserName(), existingUser);
+        String refreshToken = jwtUtils.generateRefreshToken(new HashMap<>(), existingUser.getUserName(), existingUser);
+
         // package the data to return
         UserDto userDto = UserDto.builder()
                 .userName(existingUser.getUserName())
                 .email(existingUser.getEmail())
                 .userBio(existingUser.getUserBio())
                 .userProfileImage(existingUser.getUserProfileImage())
+                .token(token)
+                .refreshToken(refreshToken)
+                .expirationTime(jwtUtils.extractExpirationTime(token))
                 .message("update success")
                 .build();
-                // TODO - also return a new token if email has changed
 
         // The following are not returned as updates
         // - role
-        // - token
-        // - refreshToken
-        // - expiration
 
         return userDto;
     }
 
+    // stores the uploaded image, recorded as an ImageWriteEvent (no-op unless enabled in the JFR recording)
+    private void writeImage(MultipartFile image, File imageFile) throws IOException {
+        ImageWriteEvent event = new ImageWriteEvent();
+        event.begin();
+        String outcome = "ERROR";
+        try {
+            image.transferTo(imageFile.toPath());
+            outcome = "WRITTEN";
+        } catch (IOException ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.payloadSize = image.getSize();
+                event.contentType = image.getContentType();
+                event.commit();
+            }
+        }
+    }
+
 }
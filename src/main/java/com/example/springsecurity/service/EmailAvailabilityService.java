@@ -0,0 +1,103 @@
+package com.example.springsecurity.service;
+
+import com.example.springsecurity.repository.UserRepository;
+import com.example.springsecurity.util.BloomFilter;
+import com.example.springsecurity.util.TokenBucketRateLimiter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ *********************************************************************************************
+ * Email availability check for the signup form, backed by a Bloom filter of registered emails
+ * - Definite negatives ("never registered") are answered from memory without a DB query
+ * - Possible positives fall through to an indexed existsByEmail lookup
+ * - The filter is loaded once the application is ready by streaming the users table,
+ *   and kept current by AuthService on sign-up and email change
+ * - Until loading completes every check goes to the DB
+ *********************************************************************************************
+ */
+@Slf4j
+@Service
+public class EmailAvailabilityService {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Value("${app.email-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+    @Value("${app.email-filter.false-positive-probability:0.01}")
+    private double falsePositiveProbability;
+    @Value("${app.email-check.burst:10}")
+    private int burst;
+    @Value("${app.email-check.requests-per-minute:30}")
+    private int requestsPerMinute;
+    @Value("${app.email-check.max-tracked-clients:100000}")
+    private int maxTrackedClients;
+
+    private BloomFilter registeredEmails;
+    private TokenBucketRateLimiter rateLimiter;
+    private volatile boolean loaded;
+
+    @PostConstruct      // create the (empty) filter so sign-ups during startup are not missed
+    public void init() {
+        this.registeredEmails = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        this.rateLimiter = new TokenBucketRateLimiter(burst, requestsPerMinute, maxTrackedClients);
+    }
+
+    // streams every registered email into the filter once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.currentTimeMillis();
+        AtomicLong count = new AtomicLong();
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.forEach(email -> {
+                registeredEmails.put(normalize(email));
+                count.incrementAndGet();
+            });
+        }
+        loaded = true;
+        log.info("Loaded {} emails into the availability filter in {} ms", count.get(), System.currentTimeMillis() - start);
+    }
+
+    // per-client throttle so the endpoint can't be used to enumerate accounts cheaply
+    public boolean tryAcquire(String clientIp) {
+        return rateLimiter.tryAcquire(clientIp);
+    }
+
+    public boolean isAvailable(String email) {
+        if (isDefinitelyAvailable(email)) {
+            return true;
+        }
+        return !userRepository.existsByEmail(normalize(email));
+    }
+
+    // answered from memory only: true if the email was definitely never registered,
+    // false if the caller still has to check the database
+    public boolean isDefinitelyAvailable(String email) {
+        return loaded && !registeredEmails.mightContain(normalize(email));
+    }
+
+    // called after a sign-up or an email change
+    public void register(String email) {
+        if (email != null) {
+            registeredEmails.put(normalize(email));
+        }
+    }
+
+    // emails are compared case-insensitively, as by the database's default collation
+    // also used by the reactive stack's database check, so both stacks answer alike
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.example.springsecurity.service;
+
+import com.example.springsecurity.dto.UserDto;
+import com.example.springsecurity.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *********************************************************************************************
+ * Per-user cache of the profile returned by GET /api/v1/user/me
+ * - Looked up by the token's userId/updatedDateTime claims, so a hit needs no DB query at all;
+ *   only a miss loads the user (once) and caches it
+ * - An entry is only reused while it is at least as recent as the token's updatedDateTime,
+ *   so a profile update (which re-issues the token) can never be served stale
+ * - The ETag is derived from the cached row's (id, updatedDateTime) and lets clients revalidate
+ *   with If-None-Match; it never comes from the token, so an old token can't validate a stale copy
+ *********************************************************************************************
+ */
+@Service
+public class ProfileService {
+
+    public record CachedProfile(LocalDateTime updatedDateTime, String etag, UserDto profile) {
+    }
+
+    @Value("${app.profile-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<Long, CachedProfile> cache = new ConcurrentHashMap<>();
+
+    // the cached profile for the token's principal, or null if none is cached at its version (or later)
+    public CachedProfile getCachedProfile(User principal) {
+        CachedProfile cached = cache.get(principal.getId());
+        if (cached != null && !cached.updatedDateTime().isBefore(principal.getUpdatedDateTime())) {
+            return cached;
+        }
+        return null;
+    }
+
+    // caches the profile of a freshly loaded (or just updated) user
+    public CachedProfile cacheProfile(User user) {
+        CachedProfile profile = new CachedProfile(user.getUpdatedDateTime(), etagFor(user), toProfile(user));
+
+        // keep the cache bounded; a dropped entry costs one lookup on the user's next request
+        if (cache.size() >= maxEntries) {
+            cache.clear();
+        }
+        // never replace a newer entry (e.g. a concurrent update) with an older load
+        return cache.merge(user.getId(), profile,
+                (current, loaded) -> current.updatedDateTime().isAfter(loaded.updatedDateTime()) ? current : loaded);
+    }
+
+    // strong validator: changes whenever the row's updatedDateTime changes
+    private String etagFor(User user) {
+        LocalDateTime updated = user.getUpdatedDateTime();
+        return "\"" + user.getId() + "-"
+                + Long.toHexString(updated.toEpochSecond(ZoneOffset.UTC)) + "."
+                + Integer.toHexString(updated.getNano()) + "\"";
+    }
+
+    private UserDto toProfile(User user) {
+        return UserDto.builder()
+                .userName(user.getUserName())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .userBio(user.getUserBio())
+                .userProfileImage(user.getUserProfileImage())
+                .build();
+    }
+
+}
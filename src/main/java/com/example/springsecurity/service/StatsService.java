@@ -0,0 +1,264 @@
+package com.example.springsecurity.service;
+
+import com.example.springsecurity.model.EnumRole;
+import com.example.springsecurity.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ *********************************************************************************************
+ * In-memory dashboard counters for GET /api/v1/admin/stats
+ * - Striped LongAdder counters, incremented by AuthService on sign-up, sign-in and update
+ * - User totals and sign-ups per day are derived from the users table: seeded at startup and
+ *   reconciled at a low frequency, so every instance converges on the same numbers
+ * - Logins and updates are not derivable: each instance checkpoints only its increments since
+ *   its last checkpoint (metric_value = metric_value + delta, one JDBC batch upsert), so any
+ *   number of instances add up instead of overwriting each other; the summed rows are read back
+ *   so the dashboard shows cluster-wide totals
+ * - Reading the dashboard never queries the database
+ *********************************************************************************************
+ */
+@Slf4j
+@Service
+public class StatsService {
+
+    private static final String LOGINS_PER_HOUR = "logins.hour.";
+    private static final String UPDATES_PER_DAY = "updates.day.";
+
+    // MySQL upsert: adds the delta to an existing row, creates it otherwise (atomic per row across instances)
+    // the row alias ("AS new", MySQL 8.0.19+) replaces VALUES(col), deprecated since 8.0.20
+    private static final String UPSERT_SQL = "INSERT INTO stats_checkpoint (metric, metric_value, checkpointed_at) VALUES (?, ?, ?) AS new "
+            + "ON DUPLICATE KEY UPDATE metric_value = stats_checkpoint.metric_value + new.metric_value, checkpointed_at = new.checkpointed_at";
+    private static final String SELECT_SQL = "SELECT metric, metric_value FROM stats_checkpoint";
+    private static final String DELETE_SQL = "DELETE FROM stats_checkpoint WHERE metric = ?";
+
+    // a counter shared by every instance: the cluster-wide total as of the last checkpoint,
+    // plus this instance's increments since then
+    private static final class SharedCounter {
+        private final LongAdder pending = new LongAdder();
+        private volatile long checkpointed;
+
+        private long sum() {
+            return checkpointed + pending.sum();
+        }
+    }
+
+    // a counter derived from the users table: the latest reconciled count is folded into an offset
+    // against a snapshot of the increments, so increments are never reset and never read-then-written
+    private static final class ReconciledCounter {
+        private final LongAdder increments = new LongAdder();
+        private volatile long offset;
+
+        private void increment() {
+            increments.increment();
+        }
+
+        private long sum() {
+            return offset + increments.sum();
+        }
+
+        // called after the count was queried: an increment racing the query is off by one until the next reconcile
+        private void reconcile(long actual) {
+            offset = actual - increments.sum();
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Value("${app.stats.retention-days:30}")
+    private int retentionDays;
+    @Value("${app.stats.retention-hours:48}")
+    private int retentionHours;
+
+    private final ReconciledCounter totalUsers = new ReconciledCounter();
+    private final Map<EnumRole, ReconciledCounter> usersByRole = new EnumMap<>(EnumRole.class);
+    private final ConcurrentHashMap<LocalDate, ReconciledCounter> signUpsPerDay = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LocalDateTime, SharedCounter> loginsPerHour = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LocalDate, SharedCounter> updatesPerDay = new ConcurrentHashMap<>();
+
+    @PostConstruct      // the counters exist before any request can record into them
+    public void init() {
+        for (EnumRole role : EnumRole.values()) {
+            usersByRole.put(role, new ReconciledCounter());
+        }
+    }
+
+    // seeded once the context is up: no repository is touched during startup, so they can be bootstrapped
+    // in the background (bootstrap-mode=deferred); readiness only switches to ACCEPTING_TRAFFIC after this returns
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reconcileUsers();
+
+        // logins and updates are not derivable from the users table: restore them from the checkpoint
+        loadCheckpoints();
+    }
+
+    public void recordSignUp(EnumRole role) {
+        totalUsers.increment();
+        usersByRole.get(role).increment();
+        signUpsPerDay.computeIfAbsent(LocalDate.now(), day -> new ReconciledCounter()).increment();
+    }
+
+    public void recordSignIn() {
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        loginsPerHour.computeIfAbsent(hour, h -> new SharedCounter()).pending.increment();
+    }
+
+    public void recordProfileUpdate() {
+        updatesPerDay.computeIfAbsent(LocalDate.now(), day -> new SharedCounter()).pending.increment();
+    }
+
+    // snapshot of every counter, served by the admin API
+    public Map<String, Object> getStats() {
+        Map<String, Long> roles = new LinkedHashMap<>();
+        usersByRole.forEach((role, counter) -> roles.put(role.name(), counter.sum()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalUsers", totalUsers.sum());
+        stats.put("usersByRole", roles);
+        stats.put("signUpsPerDay", snapshot(signUpsPerDay, ReconciledCounter::sum));
+        stats.put("loginsPerHour", snapshot(loginsPerHour, SharedCounter::sum));
+        stats.put("profileUpdatesPerDay", snapshot(updatesPerDay, SharedCounter::sum));
+        return stats;
+    }
+
+    // corrects drift (e.g. users deleted directly in the DB, sign-ups served by other instances)
+    // with two GROUP BY queries, hourly by default
+    @Scheduled(initialDelayString = "${app.stats.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${app.stats.reconcile-interval-ms:3600000}")
+    public synchronized void reconcileUsers() {
+        Map<EnumRole, Long> actual = new EnumMap<>(EnumRole.class);
+        for (Object[] row : userRepository.countUsersByRole()) {
+            actual.put((EnumRole) row[0], (Long) row[1]);
+        }
+
+        long total = 0;
+        for (EnumRole role : EnumRole.values()) {
+            long count = actual.getOrDefault(role, 0L);
+            usersByRole.get(role).reconcile(count);
+            total += count;
+        }
+        totalUsers.reconcile(total);
+
+        LocalDateTime since = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        for (Object[] row : userRepository.countSignUpsPerDaySince(since)) {
+            signUpsPerDay.computeIfAbsent((LocalDate) row[0], day -> new ReconciledCounter()).reconcile((Long) row[1]);
+        }
+    }
+
+    // adds this instance's logins/updates since the last checkpoint to the shared rows, prunes buckets
+    // that fell out of the retention window and reads back the cluster-wide totals
+    // also runs on shutdown so the logins/updates since the last checkpoint are kept
+    @Scheduled(fixedDelayString = "${app.stats.checkpoint-interval-ms:60000}")
+    @PreDestroy
+    public synchronized void checkpoint() {
+        LocalDate oldestDay = LocalDate.now().minusDays(retentionDays);
+        LocalDateTime oldestHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(retentionHours);
+
+        List<String> expired = new ArrayList<>();
+        signUpsPerDay.keySet().removeIf(day -> day.isBefore(oldestDay));
+        prune(updatesPerDay, day -> day.isBefore(oldestDay), UPDATES_PER_DAY, expired);
+        prune(loginsPerHour, hour -> hour.isBefore(oldestHour), LOGINS_PER_HOUR, expired);
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> upserts = new ArrayList<>();
+        Map<SharedCounter, Long> deltas = new HashMap<>();
+        takeDeltas(loginsPerHour, LOGINS_PER_HOUR, now, upserts, deltas);
+        takeDeltas(updatesPerDay, UPDATES_PER_DAY, now, upserts, deltas);
+
+        try {
+            if (!upserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, upserts);
+            }
+        } catch (DataAccessException ex) {
+            // hand the deltas back, they are retried at the next checkpoint
+            deltas.forEach((counter, delta) -> {
+                counter.checkpointed -= delta;
+                counter.pending.add(delta);
+            });
+            log.warn("Failed to checkpoint {} statistics: {}", upserts.size(), ex.getMessage());
+            return;
+        }
+
+        try {
+            if (!expired.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, expired.stream().map(metric -> new Object[] {metric}).toList());
+            }
+            loadCheckpoints();
+        } catch (DataAccessException ex) {
+            log.warn("Failed to refresh checkpointed statistics: {}", ex.getMessage());
+        }
+        log.debug("Checkpointed {} statistics, pruned {}", upserts.size(), expired.size());
+    }
+
+    // moves each bucket's pending increments into an upsert row; the bucket keeps showing them meanwhile
+    private <K> void takeDeltas(Map<K, SharedCounter> buckets, String prefix, Timestamp now,
+                                List<Object[]> upserts, Map<SharedCounter, Long> deltas) {
+        buckets.forEach((bucket, counter) -> {
+            long delta = counter.pending.sumThenReset();
+            if (delta != 0) {
+                counter.checkpointed += delta;
+                deltas.put(counter, delta);
+                upserts.add(new Object[] {prefix + key(bucket), delta, now});
+            }
+        });
+    }
+
+    // the table holds the totals of every instance: they replace the checkpointed part of each bucket
+    private void loadCheckpoints() {
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            String metric = rs.getString(1);
+            long value = rs.getLong(2);
+            if (metric.startsWith(LOGINS_PER_HOUR)) {
+                LocalDateTime hour = LocalDateTime.parse(metric.substring(LOGINS_PER_HOUR.length()) + ":00");
+                loginsPerHour.computeIfAbsent(hour, h -> new SharedCounter()).checkpointed = value;
+            } else if (metric.startsWith(UPDATES_PER_DAY)) {
+                LocalDate day = LocalDate.parse(metric.substring(UPDATES_PER_DAY.length()));
+                updatesPerDay.computeIfAbsent(day, d -> new SharedCounter()).checkpointed = value;
+            }
+        });
+    }
+
+    private <K, V> void prune(Map<K, V> buckets, Predicate<K> isExpired, String prefix, List<String> expired) {
+        buckets.keySet().removeIf(bucket -> {
+            if (isExpired.test(bucket)) {
+                expired.add(prefix + key(bucket));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // "2026-01-31" for days, "2026-01-31T14" for hours
+    private static String key(Object bucket) {
+        return (bucket instanceof LocalDateTime hour) ? hour.toString().substring(0, 13) : bucket.toString();
+    }
+
+    private static <K extends Comparable<? super K>, V> Map<String, Long> snapshot(Map<K, V> buckets, ToLongFunction<V> count) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        new TreeMap<>(buckets).forEach((bucket, value) -> sorted.put(key(bucket), count.applyAsLong(value)));
+        return sorted;
+    }
+
+}
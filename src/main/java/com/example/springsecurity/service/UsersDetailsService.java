@@ -1,21 +1,52 @@
 package com.example.springsecurity.service;
 
+import com.example.springsecurity.config.ReplicaLagTracker;
+import com.example.springsecurity.config.ReplicaRoutingContext;
+import com.example.springsecurity.jfr.UserLoadEvent;
+import com.example.springsecurity.model.User;
 import com.example.springsecurity.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Service
 public class UsersDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
+    @Autowired
+    private ReplicaLagTracker replicaLagTracker;
 
+    // read-only: served by a replica when replica routing is enabled,
+    // unless the user wrote recently (e.g. signing in right after signing up)
     @Override
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        // Manage UsernameNotFound exception at GlobalExceptionHandler
-        return userRepository.findByEmail(username).orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        UserLoadEvent event = new UserLoadEvent();
+        event.begin();
+        boolean primaryForced = replicaLagTracker.isRecentWriter(username);
+        String outcome = "ERROR";
+        try {
+            Optional<User> user = primaryForced
+                    ? ReplicaRoutingContext.onPrimary(() -> userRepository.findByEmail(username))
+                    : userRepository.findByEmail(username);
+            outcome = user.isPresent() ? "FOUND" : "NOT_FOUND";
+
+            // Manage UsernameNotFound exception at GlobalExceptionHandler
+            return user.orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.payloadSize = (username == null) ? 0 : username.length();
+                event.primaryForced = primaryForced;
+                event.commit();
+            }
+        }
     }
 }
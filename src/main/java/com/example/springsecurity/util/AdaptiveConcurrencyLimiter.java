@@ -0,0 +1,135 @@
+package com.example.springsecurity.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *********************************************************************************************
+ * Concurrency limit that adapts to the observed latency (gradient algorithm with AIMD backoff)
+ * - Compares a short-term latency average against a long-term baseline:
+ *   latency rising above the baseline shrinks the limit, steady latency lets it grow
+ * - A failed request (drop) cuts the limit multiplicatively; drops are never lost to
+ *   contention on the update lock, they are applied by the next update
+ * - The limit only grows while it is actually being used, so idle periods don't inflate it
+ * - tryAcquire() never blocks: callers shed the request when it returns false
+ *********************************************************************************************
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW_ALPHA = 2.0 / (10 + 1);      // EMA over ~10 samples
+    private static final double LONG_WINDOW_ALPHA = 2.0 / (600 + 1);      // EMA over ~600 samples
+    private static final double RTT_TOLERANCE = 1.5;                      // latency increase tolerated before backing off
+    private static final double SMOOTHING = 0.2;                          // weight of each new limit estimate
+    private static final double BACKOFF_RATIO = 0.9;                      // multiplicative decrease on drops
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final AtomicInteger pendingDrops = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile int limit;
+    private double estimatedLimit;      // guarded by updateLock
+    private double shortRtt;            // guarded by updateLock
+    private double longRtt;             // guarded by updateLock
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    // reserves a slot; returns false when the current limit is reached
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // frees the slot and feeds the request's latency (and whether it failed) into the limit
+    public void release(long rttNanos, boolean didDrop) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        if (didDrop) {
+            pendingDrops.incrementAndGet();
+        }
+
+        // a latency sample lost to contention is harmless, request threads never wait for the update;
+        // a drop stays in pendingDrops until whoever holds (or next takes) the lock applies it
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (!applyDrops() && !didDrop) {
+                update(rttNanos, inFlightAtCompletion);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    // returns true if pending drops cut the limit
+    private boolean applyDrops() {
+        int drops = pendingDrops.getAndSet(0);
+        if (drops == 0) {
+            return false;
+        }
+        estimatedLimit = Math.max(minLimit, estimatedLimit * Math.pow(BACKOFF_RATIO, drops));
+        limit = (int) estimatedLimit;
+        return true;
+    }
+
+    private void update(long rttNanos, int inFlightAtCompletion) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += SHORT_WINDOW_ALPHA * (rttNanos - shortRtt);
+        longRtt += LONG_WINDOW_ALPHA * (rttNanos - longRtt);
+
+        // after a slowdown ends, pull the baseline back down quickly instead of over ~600 samples
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        // app-limited: with less than half the limit in use, latency says nothing about capacity
+        if (inFlightAtCompletion < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double queueSize = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueSize;
+
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+}
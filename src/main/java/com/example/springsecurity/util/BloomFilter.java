@@ -0,0 +1,98 @@
+package com.example.springsecurity.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ *********************************************************************************************
+ * Thread-safe Bloom filter for strings
+ * - mightContain() == false is a definite "never added"; true means "possibly added"
+ * - Sized from the expected number of insertions and the target false positive probability
+ * - Bits live in an AtomicLongArray so put() and mightContain() need no locking
+ * - Elements cannot be removed; a removed element simply stays a (false) positive
+ *********************************************************************************************
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions < 1 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Bloom filter needs expectedInsertions >= 1 and 0 < fpp < 1");
+        }
+        // optimal sizing: m = -n ln(p) / ln(2)^2, k = m / n ln(2)
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long h1 = hash64(value);
+        long h2 = mix64(h1 + 0x9e3779b97f4a7c15L);
+        long combinedHash = h1;
+        for (int i = 0; i < hashCount; i++) {
+            combinedHash += h2;
+            setBit(index(combinedHash));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash64(value);
+        long h2 = mix64(h1 + 0x9e3779b97f4a7c15L);
+        long combinedHash = h1;
+        for (int i = 0; i < hashCount; i++) {
+            combinedHash += h2;
+            if (!getBit(index(combinedHash))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // double hashing (Kirsch-Mitzenmacher) on two 64-bit hashes, combined in long arithmetic as Guava does:
+    // an int combination overflows after a few rounds and cannot address more than 2^32 bits
+    private long index(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean getBit(long index) {
+        return (bits.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    // 64-bit FNV-1a over the UTF-8 bytes, finished with a murmur3 avalanche step
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return mix64(hash);
+    }
+
+    // murmur3 64-bit finalizer
+    private static long mix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
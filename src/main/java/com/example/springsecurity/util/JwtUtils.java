@@ -1,6 +1,10 @@
 package com.example.springsecurity.util;
 
+import com.example.springsecurity.jfr.TokenVerificationEvent;
+import com.example.springsecurity.model.EnumRole;
+import com.example.springsecurity.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,9 +14,12 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
 
 @Component
@@ -26,6 +33,10 @@ public class JwtUtils {
     // Manage the expiration duration
     public static final long EXPIRATION_TIME = 60 * 24 * 60 * 1000; // 86400000 milliseconds = 24 hours
 
+    // user id and row version, let GET /user/me authenticate and revalidate from the token alone
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String UPDATED_DATE_TIME_CLAIM = "updatedDateTime";
+
     // generate a message authentication code (MAC) using the secret key in combination with the SHA-256 hash function.
 
     @PostConstruct      // run init() method immediately after the constructor of class has been invoked
@@ -47,6 +58,7 @@ public class JwtUtils {
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .claim("roles", userDetails.getAuthorities())
                 .claim("userName", userName)
+                .claims(versionClaims(userDetails))
                 .signWith(secretKey)
                 .compact();
     }
@@ -60,19 +72,15 @@ public class JwtUtils {
                 .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .claim("roles", userDetails.getAuthorities())
                 .claim("userName", userName)
+                .claims(versionClaims(userDetails))
                 .signWith(secretKey)
                 .compact();
     }
 
     // returns the duration of expiry
     public Long extractExpirationTime(String token) {
-        return Jwts.parser()
-                .verifyWith(secretKey)          // Ensure the key matches the one used for signing
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration()                // Returns a java.util.Date
-                .getTime();                     // Converts Date to Long (milliseconds)
+        return extractClaims(token, Claims::getExpiration)  // Returns a java.util.Date
+                .getTime();                                 // Converts Date to Long (milliseconds)
     }
 
     // check if the token used is valid
@@ -87,10 +95,70 @@ public class JwtUtils {
         return extractClaims(token, Claims::getSubject);
     }
 
+    // rebuilds the principal (id, email, userName, role, updatedDateTime) from a verified token, without a DB query
+    // returns null for tokens without the id/version claims (e.g. issued before they were added)
+    public User extractUser(String token) {
+        Claims claims = extractClaims(token, Function.identity());
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String updatedDateTime = claims.get(UPDATED_DATE_TIME_CLAIM, String.class);
+        EnumRole role = extractRole(claims);
+        if (claims.getSubject() == null || userId == null || updatedDateTime == null || role == null) {
+            return null;
+        }
+
+        User user = User.builder()
+                .userName(claims.get("userName", String.class))
+                .email(claims.getSubject())
+                .role(role)
+                .build();
+        user.setId(userId);
+        user.setUpdatedDateTime(LocalDateTime.parse(updatedDateTime));
+        return user;
+    }
+
+    // "roles" holds the serialized authorities: [{"authority": "USER"}]
+    private static EnumRole extractRole(Claims claims) {
+        if (claims.get("roles") instanceof List<?> roles && roles.size() == 1
+                && roles.get(0) instanceof Map<?, ?> authority && authority.get("authority") instanceof String name) {
+            try {
+                return EnumRole.valueOf(name);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // only User entities carry an id and a row version
+    private static Map<String, Object> versionClaims(UserDetails userDetails) {
+        if (userDetails instanceof User user && user.getId() != null && user.getUpdatedDateTime() != null) {
+            return Map.of(USER_ID_CLAIM, user.getId(), UPDATED_DATE_TIME_CLAIM, user.getUpdatedDateTime().toString());
+        }
+        return Map.of();
+    }
+
     // this generic method, represented by <T> returns a generic type as well T
     // returns the claims (payload) from a JWT (JSON Web Token)
+    // every verification is recorded as a TokenVerificationEvent (no-op unless enabled in the JFR recording)
     private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction){
-        return claimsTFunction.apply(Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload());
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.begin();
+        String outcome = "ERROR";
+        try {
+            Claims claims = Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload();
+            outcome = "VALID";
+            return claimsTFunction.apply(claims);
+        } catch (JwtException ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.outcome = outcome;
+                event.payloadSize = (token == null) ? 0 : token.length();
+                event.commit();
+            }
+        }
     }
 
     // returns whether the token is expired by comparing the token's expiration against the current date
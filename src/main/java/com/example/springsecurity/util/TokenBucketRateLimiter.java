@@ -0,0 +1,120 @@
+package com.example.springsecurity.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *********************************************************************************************
+ * Per-key (e.g. per client IP) token bucket
+ * - Each key may burst up to "capacity" requests, then refills at "refillPerMinute"
+ * - At most maxKeys buckets exist: once full, idle buckets are swept (at most once per refill
+ *   period, so a full map isn't rescanned on every request) and new keys are refused until
+ *   a sweep frees room; keys that already have a bucket are unaffected
+ *********************************************************************************************
+ */
+public class TokenBucketRateLimiter {
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+        }
+    }
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger keyCount = new AtomicInteger();        // buckets.size() as a hard cap
+    private final AtomicLong nextSweepNanos;
+
+    public TokenBucketRateLimiter(int capacity, int refillPerMinute, int maxKeys) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.maxKeys = maxKeys;
+        this.sweepIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);     // time to earn one token
+        this.nextSweepNanos = new AtomicLong(System.nanoTime());
+    }
+
+    // returns true if the key still has a token to spend; false as well for a new key while the map is full
+    public boolean tryAcquire(String key) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(key, now);
+            if (bucket == null) {
+                return false;
+            }
+        }
+
+        synchronized (bucket) {
+            refill(bucket, now);
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens -= 1;
+            return true;
+        }
+    }
+
+    private void refill(Bucket bucket, long now) {
+        bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefillNanos) * tokensPerNano);
+        bucket.lastRefillNanos = now;
+    }
+
+    private Bucket newBucket(String key, long now) {
+        if (!reserveKey()) {
+            sweepIdle(now);
+            if (!reserveKey()) {
+                return null;
+            }
+        }
+        Bucket created = new Bucket(capacity, now);
+        Bucket existing = buckets.putIfAbsent(key, created);
+        if (existing != null) {
+            keyCount.decrementAndGet();     // another request created it first
+            return existing;
+        }
+        return created;
+    }
+
+    private boolean reserveKey() {
+        while (true) {
+            int count = keyCount.get();
+            if (count >= maxKeys) {
+                return false;
+            }
+            if (keyCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // a bucket that has refilled completely carries no state worth keeping;
+    // runs at most once per sweep interval, whichever caller wins the race does the scan
+    private void sweepIdle(long now) {
+        long due = nextSweepNanos.get();
+        if (now - due < 0 || !nextSweepNanos.compareAndSet(due, now + sweepIntervalNanos)) {
+            return;
+        }
+        for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+            Bucket bucket = entry.getValue();
+            boolean idle;
+            synchronized (bucket) {
+                refill(bucket, now);
+                idle = bucket.tokens >= capacity;
+            }
+            if (idle && buckets.remove(entry.getKey(), bucket)) {
+                keyCount.decrementAndGet();
+            }
+        }
+    }
+
+}
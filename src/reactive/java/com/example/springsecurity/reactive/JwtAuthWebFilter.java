@@ -0,0 +1,76 @@
+package com.example.springsecurity.reactive;
+
+import com.example.springsecurity.config.JwtAuthFilter;
+import com.example.springsecurity.util.JwtUtils;
+import io.jsonwebtoken.JwtException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ *********************************************************************************************
+ * WebFlux counterpart of JwtAuthFilter
+ * - Extracts the token after "Bearer " from the Authorization header, loads the user through
+ *   ReactiveUsersDetailsService and, if the token is valid, authenticates the rest of the chain
+ * - As in JwtAuthFilter, GET /user/me is authenticated from the verified token's claims alone
+ * - An invalid or expired token leaves the request unauthenticated (401/403 from the path rules)
+ *********************************************************************************************
+ */
+public class JwtAuthWebFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtils jwtUtils;
+    private final ReactiveUsersDetailsService reactiveUsersDetailsService;
+
+    public JwtAuthWebFilter(JwtUtils jwtUtils, ReactiveUsersDetailsService reactiveUsersDetailsService) {
+        this.jwtUtils = jwtUtils;
+        this.reactiveUsersDetailsService = reactiveUsersDetailsService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        final String jwtToken = authHeader.substring(BEARER_PREFIX.length());
+        final String userEmail;
+        try {
+            userEmail = jwtUtils.extractUsername(jwtToken);     // signature is verified here, no I/O
+        } catch (JwtException | IllegalArgumentException ex) {
+            return chain.filter(exchange);
+        }
+        if (userEmail == null) {
+            return chain.filter(exchange);
+        }
+
+        Mono<UserDetails> claimsPrincipal = isProfileRead(exchange)
+                ? Mono.justOrEmpty(jwtUtils.extractUser(jwtToken))
+                : Mono.empty();
+
+        return claimsPrincipal
+                .switchIfEmpty(Mono.defer(() -> reactiveUsersDetailsService.findByUsername(userEmail)
+                        .filter(loadedUser -> jwtUtils.isTokenValid(jwtToken, loadedUser))))
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()))
+                .flatMap(token -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(token))
+                        .thenReturn(true))
+                .switchIfEmpty(Mono.defer(() -> chain.filter(exchange).thenReturn(false)))
+                .then();
+    }
+
+    private static boolean isProfileRead(ServerWebExchange exchange) {
+        return HttpMethod.GET.equals(exchange.getRequest().getMethod())
+                && exchange.getRequest().getPath().pathWithinApplication().value().equals(JwtAuthFilter.PROFILE_ENDPOINT);
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.example.springsecurity.reactive;
+
+import com.example.springsecurity.dto.UserDto;
+import com.example.springsecurity.exception.EmailAlreadyExistsException;
+import com.example.springsecurity.exception.ResourceNotFoundException;
+import com.example.springsecurity.jfr.ImageWriteEvent;
+import com.example.springsecurity.model.AuditEventType;
+import com.example.springsecurity.model.User;
+import com.example.springsecurity.service.AuditService;
+import com.example.springsecurity.service.EmailAvailabilityService;
+import com.example.springsecurity.service.ProfileService;
+import com.example.springsecurity.service.StatsService;
+import com.example.springsecurity.util.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ *********************************************************************************************
+ * WebFlux counterpart of AuthService: same sign-up, sign-in and update flows, without blocking
+ * - Users are read and written through ReactiveUserRepository (R2DBC)
+ * - BCrypt encoding runs on the bounded "password" scheduler, matching is done by the
+ *   ReactiveAuthenticationManager on the same scheduler
+ * - Audit, statistics, profile cache and email filter are the shared in-memory services
+ *********************************************************************************************
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthService {
+
+    @Autowired
+    private ReactiveUserRepository reactiveUserRepository;
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private Scheduler passwordScheduler;
+    @Autowired
+    private ReactiveAuthenticationManager reactiveAuthenticationManager;
+    @Autowired
+    private AuditService auditService;
+    @Autowired
+    private ProfileService profileService;
+    @Autowired
+    private EmailAvailabilityService emailAvailabilityService;
+    @Autowired
+    private StatsService statsService;
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    public Mono<User> signUp(User user) {
+
+        return reactiveUserRepository.existsByEmail(user.getEmail())
+                .flatMap(exists -> {
+                    if (exists) {
+                        auditService.publish(AuditEventType.SIGN_UP, user.getEmail(), false, "email already exists");
+                        return Mono.<String>error(new EmailAlreadyExistsException("Please use another email."));
+                    }
+                    return encode(user.getPassword());
+                })
+                .map(encodedPassword -> User.builder()
+                        .userName(user.getUserName())
+                        .email(user.getEmail())
+                        .password(encodedPassword)
+                        .build())
+                .flatMap(reactiveUserRepository::insert)
+                .doOnNext(savedUser -> {
+                    emailAvailabilityService.register(savedUser.getEmail());
+                    statsService.recordSignUp(savedUser.getRole());
+                    auditService.publish(AuditEventType.SIGN_UP, savedUser.getEmail(), true, null);
+                });
+    }
+
+    public Mono<UserDto> signIn(User user) {
+
+        return reactiveAuthenticationManager.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(user.getEmail(), user.getPassword()))
+                .doOnError(ex -> auditService.publish(AuditEventType.SIGN_IN, user.getEmail(), false, ex.getClass().getSimpleName()))
+                .map(authenticationResponse -> {
+
+                    // as in AuthService: the principal is the User entity loaded by ReactiveUsersDetailsService
+                    User _user = (User) authenticationResponse.getPrincipal();
+
+                    String token = jwtUtils.generateToken(_user.getUserName(), _user);
+                    String refreshToken = jwtUtils.generateRefreshToken(new HashMap<>(), _user.getUserName(), _user);
+                    Long expirationTime = jwtUtils.extractExpirationTime(token);
+
+                    auditService.publish(AuditEventType.SIGN_IN, _user.getEmail(), true, null);
+                    statsService.recordSignIn();
+
+                    return UserDto.builder()
+                            .userName(_user.getUserName())
+                            .email(_user.getEmail())
+                            .token(token)
+                            .refreshToken(refreshToken)
+                            .expirationTime(expirationTime)
+                            .message("success")
+                            .role(_user.getRole())
+                            .build();
+                });
+    }
+
+    public Mono<UserDto> update(String currentEmail, User user, FilePart image) {
+
+        // Keep track of the changed fields for the audit log (names only, never values)
+        List<String> changedFields = new ArrayList<>();
+
+        return reactiveUserRepository.findByEmail(currentEmail)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found")))
+                .flatMap(existingUser -> {
+
+                    // Map ONLY the fields you want to allow updating
+                    if (user.getUserName() != null) {
+                        existingUser.setUserName(user.getUserName());
+                        changedFields.add("userName");
+                    }
+
+                    if (user.getEmail() != null) {
+                        existingUser.setEmail(user.getEmail());
+                        emailAvailabilityService.register(user.getEmail());    // the old email stays a (false) positive
+                        changedFields.add("email");
+                    }
+
+                    if (user.getUserBio() != null) {
+                        existingUser.setUserBio(user.getUserBio());
+                        changedFields.add("userBio");
+                    }
+
+                    // role should not be updated by an end user
+
+                    if (user.getPassword() == null) {
+                        return Mono.just(existingUser);
+                    }
+                    changedFields.add("password");
+                    return encode(user.getPassword()).map(encodedPassword -> {
+                        existingUser.setPassword(encodedPassword);
+                        return existingUser;
+                    });
+                })
+                .flatMap(existingUser -> (image == null || image.filename().isBlank())
+                        ? Mono.just(existingUser)
+                        : writeImage(image).map(filePath -> {
+                            existingUser.setUserProfileImage(filePath);
+                            changedFields.add("userProfileImage");
+                            return existingUser;
+                        }))
+                .flatMap(reactiveUserRepository::update)     // one UPDATE, image path included
+                .map(existingUser -> {
+
+                    // cache the new GET /user/me profile; the re-issued token below carries its updatedDateTime
+                    profileService.cacheProfile(existingUser);
+
+                    auditService.publish(AuditEventType.UPDATE, currentEmail, true, String.join(",", changedFields));
+                    statsService.recordProfileUpdate();
+
+                    // as in AuthService: the email (subject) and the updatedDateTime claim may have changed
+                    String token = jwtUtils.generateToken(existingUser.getUserName(), existingUser);
+                    String refreshToken = jwtUtils.generateRefreshToken(new HashMap<>(), existingUser.getUserName(), existingUser);
+
+                    return UserDto.builder()
+                            .userName(existingUser.getUserName())
+                            .email(existingUser.getEmail())
+                            .userBio(existingUser.getUserBio())
+                            .userProfileImage(existingUser.getUserProfileImage())
+                            .token(token)
+                            .refreshToken(refreshToken)
+                            .expirationTime(jwtUtils.extractExpirationTime(token))
+                            .message("update success")
+                            .build();
+                });
+    }
+
+    // BCrypt off the event loop
+    private Mono<String> encode(String rawPassword) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(rawPassword))
+                .subscribeOn(passwordScheduler);
+    }
+
+    // stores the uploaded image, recorded as an ImageWriteEvent (no-op unless enabled in the JFR recording)
+    // returns the stored file's path
+    private Mono<String> writeImage(FilePart image) {
+        String fileName = "profile_" + System.currentTimeMillis() + "_" + image.filename();
+        String filePath = uploadDir + File.separator + fileName;
+
+        return Mono.defer(() -> {
+            ImageWriteEvent event = new ImageWriteEvent();
+            event.begin();
+            return image.transferTo(new File(filePath).toPath())
+                    .doOnSuccess(done -> event.outcome = "WRITTEN")
+                    .doOnError(ex -> event.outcome = ex.getClass().getSimpleName())
+                    .doFinally(signal -> {
+                        event.end();
+                        if (event.shouldCommit()) {
+                            MediaType contentType = image.headers().getContentType();
+                            event.outcome = (event.outcome == null) ? "CANCELLED" : event.outcome;
+                            event.payloadSize = image.headers().getContentLength();
+                            event.contentType = (contentType == null) ? null : contentType.toString();
+                            event.commit();
+                        }
+                    })
+                    .thenReturn(filePath);
+        });
+    }
+
+}
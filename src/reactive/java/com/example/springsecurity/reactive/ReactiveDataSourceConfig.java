@@ -0,0 +1,32 @@
+package com.example.springsecurity.reactive;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ *********************************************************************************************
+ * JDBC DataSource for the reactive build
+ * - Spring Boot skips its DataSource auto-configuration as soon as an R2DBC ConnectionFactory
+ *   is configured, but JPA/JDBC is still used off the request path (audit writer, statistics
+ *   checkpoints, email filter loading) and by the servlet stack when it is selected instead
+ * - Built from the regular spring.datasource.* / spring.datasource.hikari.* properties;
+ *   DataSourceConfig provides it instead when read replicas are enabled
+ *********************************************************************************************
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "false", matchIfMissing = true)
+public class ReactiveDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.example.springsecurity.reactive;
+
+import com.example.springsecurity.exception.EmailAlreadyExistsException;
+import com.example.springsecurity.exception.MessageNotReadableException;
+import com.example.springsecurity.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *********************************************************************************************
+ * WebFlux counterpart of GlobalExceptionHandler, returning the same error bodies and statuses
+ *********************************************************************************************
+ */
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    // 1. Unreadable request body or "data" part (WebFlux reports it as a decoding/input error)
+    @ExceptionHandler({ServerWebInputException.class, DecodingException.class, JsonProcessingException.class})
+    public ResponseEntity<Object> handleMessageNotReadable(Exception ex) {
+
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error:", new MessageNotReadableException().getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // 2. @Valid failures on @RequestBody (more specific than ServerWebInputException, so handled here)
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleWebExchangeBind(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+
+        ex.getBindingResult().getFieldErrors().forEach(err -> errors.put(err.getField(), err.getDefaultMessage()));
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error:", errors);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // 3. ResourceNotFoundException
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<Object> httpEntityNotFound(ResourceNotFoundException ex) {
+
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error:", ex.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // 4. EmailAlreadyExistsException
+    @ExceptionHandler(EmailAlreadyExistsException.class)
+    public ResponseEntity<Object> handleEmailAlreadyExistsException(EmailAlreadyExistsException ex) {
+
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error:", ex.getMessage());
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // 5. Failed sign-in: unknown user (empty lookup) and bad credentials alike
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Map<String, String>> handleAuthenticationException(AuthenticationException ex) {
+
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Authentication Failed");
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED); // 401 Unauthorized
+    }
+
+}
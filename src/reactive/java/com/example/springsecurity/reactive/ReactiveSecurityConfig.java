@@ -0,0 +1,86 @@
+package com.example.springsecurity.reactive;
+
+import com.example.springsecurity.jfr.InstrumentedPasswordEncoder;
+import com.example.springsecurity.util.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import static com.example.springsecurity.config.SecurityConfig.API_ENDPOINT;
+
+/**
+ *********************************************************************************************
+ * WebFlux counterpart of SecurityConfig, active when the application runs as a reactive
+ * web application (spring.main.web-application-type=reactive, see application-reactive.properties)
+ * - Same path rules as the servlet stack, stateless (no security context is stored between requests)
+ * - BCrypt is CPU-bound and would stall an event-loop thread for the whole hash: every
+ *   encode/match runs on the bounded "password" scheduler instead
+ *********************************************************************************************
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Autowired
+    private ReactiveUsersDetailsService reactiveUsersDetailsService;
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity httpSecurity) {
+
+        httpSecurity.csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange.pathMatchers(API_ENDPOINT.concat("/public/**"), API_ENDPOINT.concat("/uploads/**")).permitAll()
+                        .pathMatchers("/actuator/health/**").permitAll()     // liveness/readiness probes
+                        .pathMatchers(API_ENDPOINT.concat("/user/**")).hasAnyAuthority("USER")
+                        .pathMatchers(API_ENDPOINT.concat("/admin/**")).hasAnyAuthority("ADMIN")
+                        .pathMatchers(API_ENDPOINT.concat("/restricted/**")).hasAnyAuthority("USER", "ADMIN")
+                        .anyExchange().authenticated())
+                // not a bean: WebFilter beans are also added to the plain WebFlux chain by Spring Boot
+                .addFilterAt(new JwtAuthWebFilter(jwtUtils, reactiveUsersDetailsService), SecurityWebFiltersOrder.AUTHENTICATION);
+
+        return httpSecurity.build();
+    }
+
+    // bounded to the number of cores: BCrypt never waits on I/O, more threads would only queue on the CPU
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordScheduler(@Value("${app.reactive.password-threads:0}") int passwordThreads,
+                                       @Value("${app.reactive.password-queue:10000}") int passwordQueue) {
+        int threads = (passwordThreads > 0) ? passwordThreads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newBoundedElastic(threads, passwordQueue, "password");
+    }
+
+    // same encoder as the servlet stack, wrapped to record each encode/match as a JFR PasswordEvent
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new InstrumentedPasswordEncoder(new BCryptPasswordEncoder());
+    }
+
+    // authenticates sign-in requests against ReactiveUsersDetailsService, matching the password on passwordScheduler
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(PasswordEncoder passwordEncoder, Scheduler passwordScheduler) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(reactiveUsersDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setScheduler(passwordScheduler);
+        return authenticationManager;
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.example.springsecurity.reactive;
+
+import com.example.springsecurity.model.User;
+import com.example.springsecurity.service.EmailAvailabilityService;
+import com.example.springsecurity.service.ProfileService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.FormFieldPart;
+import org.springframework.http.codec.multipart.Part;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ *********************************************************************************************
+ * WebFlux counterpart of UserController: same paths, request and response formats
+ *********************************************************************************************
+ */
+@RestController
+@RequestMapping("/api/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    @Autowired
+    private ReactiveAuthService reactiveAuthService;
+    @Autowired
+    private ReactiveUserRepository reactiveUserRepository;
+    @Autowired
+    private ReactiveUsersDetailsService reactiveUsersDetailsService;
+    @Autowired
+    private ProfileService profileService;
+    @Autowired
+    private EmailAvailabilityService emailAvailabilityService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping("/public/signup")  /** public endpoint for signups */
+    public Mono<ResponseEntity<Object>> signup(@Valid @RequestBody User user) {
+        return reactiveAuthService.signUp(user).map(savedUser -> new ResponseEntity<>(savedUser, HttpStatus.CREATED));
+    }
+
+    @PostMapping("/public/signin") /** public endpoint for signing in */
+    public Mono<ResponseEntity<Object>> signin(@RequestBody User user) {
+        return reactiveAuthService.signIn(user).map(userDto -> new ResponseEntity<>(userDto, HttpStatus.OK));
+    }
+
+    @GetMapping("/public/email-available")  /** public endpoint for checking whether an email can be used to sign up */
+    public Mono<ResponseEntity<Object>> emailAvailable(@RequestParam(value = "email", required = false) String email,
+                                                       ServerWebExchange exchange) {
+
+        Map<String, Object> response = new HashMap<>();
+
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        String clientIp = (remoteAddress == null) ? "unknown" : remoteAddress.getHostString();
+        if (!emailAvailabilityService.tryAcquire(clientIp)) {
+            response.put("error:", "Too many requests. Please slow down.");
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "60").body(response));
+        }
+
+        if (email == null || email.isBlank()) {
+            response.put("error:", "email cannot be blank.");
+            return Mono.just(new ResponseEntity<>(response, HttpStatus.BAD_REQUEST));
+        }
+
+        // Bloom filter first, the R2DBC lookup only for possible positives
+        Mono<Boolean> available = emailAvailabilityService.isDefinitelyAvailable(email)
+                ? Mono.just(true)
+                : reactiveUserRepository.existsByEmail(EmailAvailabilityService.normalize(email)).map(exists -> !exists);
+
+        response.put("email", email);
+        return available.map(isAvailable -> {
+            response.put("available", isAvailable);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    @GetMapping("/user/me")         /** user-authenticated endpoint for reading own profile (supports If-None-Match) */
+    public Mono<ResponseEntity<Object>> me(@AuthenticationPrincipal User user, ServerWebExchange exchange) {
+
+        // The principal comes from the token's claims: a profile cached at (or after) the token's version
+        // answers both If-None-Match and the full body without any DB query; a miss loads the user once
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();   // clients must revalidate with the ETag
+        return Mono.justOrEmpty(profileService.getCachedProfile(user))
+                .switchIfEmpty(Mono.defer(() -> reactiveUsersDetailsService.findByUsername(user.getEmail())
+                        .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found: " + user.getEmail())))
+                        .map(loadedUser -> profileService.cacheProfile((User) loadedUser))))
+                .<ResponseEntity<Object>>map(profile -> exchange.checkNotModified(profile.etag())
+                        ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(profile.etag()).cacheControl(cacheControl).build()
+                        : ResponseEntity.ok().eTag(profile.etag()).cacheControl(cacheControl).body(profile.profile()));
+    }
+
+    @PutMapping("/user/update")     /** user-authenticated endpoint for updating user profile */
+    public Mono<ResponseEntity<Object>> update(@AuthenticationPrincipal User principal, ServerWebExchange exchange) {
+
+        // same multipart form as the servlet stack: "data" (JSON string) and an optional "image" file
+        return exchange.getMultipartData().flatMap(parts -> {
+            Part data = parts.getFirst("data");
+            Part image = parts.getFirst("image");
+            if (!(data instanceof FormFieldPart dataField)) {
+                Map<String, String> errorResponse = new HashMap<>();
+                errorResponse.put("error:", "Required part 'data' is not present.");
+                return Mono.just(new ResponseEntity<Object>(errorResponse, HttpStatus.BAD_REQUEST));
+            }
+
+            // Convert "data" stored as a string into User object
+            return Mono.fromCallable(() -> objectMapper.readValue(dataField.value(), User.class))
+                    .flatMap(user -> reactiveAuthService.update(principal.getEmail(), user, (image instanceof FilePart file) ? file : null))
+                    .map(userDto -> new ResponseEntity<Object>(userDto, HttpStatus.OK));
+        });
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.example.springsecurity.reactive;
+
+import com.example.springsecurity.model.EnumRole;
+import com.example.springsecurity.model.User;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ *********************************************************************************************
+ * WebFlux counterpart of UserRepository: non-blocking access to the "users" table over R2DBC
+ * - Explicit SQL through DatabaseClient: User is a JPA entity and stays the single model
+ *   shared by both stacks, so it is mapped here by hand instead of with Spring Data R2DBC
+ * - The schema is still owned by JPA (spring.jpa.hibernate.ddl-auto); column names follow
+ *   Spring's default snake_case naming, and the timestamps Hibernate would fill in are set here
+ *********************************************************************************************
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserRepository {
+
+    private static final String COLUMNS = "id, user_name, email, password, role, created_date_time, updated_date_time, user_bio, user_profile_image";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Mono<User> findByEmail(String email) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM users WHERE email = :email")
+                .bind("email", email)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    // uses the unique index on email, no row is read
+    public Mono<Boolean> existsByEmail(String email) {
+        return databaseClient.sql("SELECT 1 FROM users WHERE email = :email LIMIT 1")
+                .bind("email", email)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    // inserts a new user and returns it with its generated id and timestamps
+    public Mono<User> insert(User user) {
+        LocalDateTime now = now();
+        user.setCreatedDateTime(now);
+        user.setUpdatedDateTime(now);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "INSERT INTO users (user_name, email, password, role, created_date_time, updated_date_time, user_bio, user_profile_image) "
+                                + "VALUES (:userName, :email, :password, :role, :created, :updated, :userBio, :userProfileImage)")
+                .bind("userName", user.getUserName())
+                .bind("email", user.getEmail())
+                .bind("password", user.getPassword())
+                .bind("role", user.getRole().name())
+                .bind("created", now)
+                .bind("updated", now);
+        spec = bindNullable(spec, "userBio", user.getUserBio());
+        spec = bindNullable(spec, "userProfileImage", user.getUserProfileImage());
+
+        return spec.filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .map(id -> {
+                    user.setId(id);
+                    return user;
+                });
+    }
+
+    // writes every updatable column of an existing user and refreshes its updatedDateTime
+    public Mono<User> update(User user) {
+        user.setUpdatedDateTime(now());
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                        "UPDATE users SET user_name = :userName, email = :email, password = :password, "
+                                + "updated_date_time = :updated, user_bio = :userBio, user_profile_image = :userProfileImage WHERE id = :id")
+                .bind("userName", user.getUserName())
+                .bind("email", user.getEmail())
+                .bind("password", user.getPassword())
+                .bind("updated", user.getUpdatedDateTime())
+                .bind("id", user.getId());
+        spec = bindNullable(spec, "userBio", user.getUserBio());
+        spec = bindNullable(spec, "userProfileImage", user.getUserProfileImage());
+
+        return spec.fetch().rowsUpdated().thenReturn(user);
+    }
+
+    // DATETIME(6) keeps microseconds: truncate so the in-memory value equals the one read back (ETags)
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return (value == null) ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+
+    private static User toUser(Readable row) {
+        User user = User.builder()
+                .userName(row.get("user_name", String.class))
+                .email(row.get("email", String.class))
+                .password(row.get("password", String.class))
+                .role(EnumRole.valueOf(row.get("role", String.class)))
+                .userBio(row.get("user_bio", String.class))
+                .userProfileImage(row.get("user_profile_image", String.class))
+                .build();
+        user.setId(row.get("id", Long.class));
+        user.setCreatedDateTime(row.get("created_date_time", LocalDateTime.class));
+        user.setUpdatedDateTime(row.get("updated_date_time", LocalDateTime.class));
+        return user;
+    }
+
+}
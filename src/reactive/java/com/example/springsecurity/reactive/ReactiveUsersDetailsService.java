@@ -0,0 +1,50 @@
+package com.example.springsecurity.reactive;
+
+import com.example.springsecurity.jfr.UserLoadEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ *********************************************************************************************
+ * WebFlux counterpart of UsersDetailsService, backed by ReactiveUserRepository (R2DBC)
+ * - An unknown user completes empty, as the ReactiveUserDetailsService contract requires;
+ *   Spring Security turns that into a failed authentication
+ *********************************************************************************************
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUsersDetailsService implements ReactiveUserDetailsService {
+
+    @Autowired
+    private ReactiveUserRepository reactiveUserRepository;
+
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return Mono.defer(() -> {
+            UserLoadEvent event = new UserLoadEvent();
+            event.begin();
+            return reactiveUserRepository.findByEmail(username)
+                    .doOnNext(user -> event.outcome = "FOUND")
+                    .doOnError(ex -> event.outcome = "ERROR")
+                    .doFinally(signal -> commit(event, username, signal == SignalType.CANCEL ? "CANCELLED" : "NOT_FOUND"))
+                    .cast(UserDetails.class);
+        });
+    }
+
+    // recorded once per lookup, however it terminated (no-op unless enabled in the JFR recording)
+    private static void commit(UserLoadEvent event, String username, String defaultOutcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = (event.outcome == null) ? defaultOutcome : event.outcome;
+            event.payloadSize = (username == null) ? 0 : username.length();
+            event.primaryForced = false;    // no replica routing on the reactive stack
+            event.commit();
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.example.springsecurity.reactive;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyRouteProvider;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.web.reactive.config.ResourceHandlerRegistry;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+import static com.example.springsecurity.config.SecurityConfig.API_ENDPOINT;
+
+/**
+ *********************************************************************************************
+ * WebFlux counterpart of WebConfig
+ * - Runs the reactive stack on Reactor Netty: Tomcat is also on the classpath (the same jar
+ *   serves the servlet stack) and Spring Boot would otherwise pick it for WebFlux as well
+ * - Serves the uploaded profile images under /api/v1/<upload-dir>/**, as the servlet stack does
+ *********************************************************************************************
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    // replaces Spring Boot's choice of embedded server; server.* properties are still applied by its customizers
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<ReactorResourceFactory> resourceFactory,
+                                                                       ObjectProvider<NettyRouteProvider> routes,
+                                                                       ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory serverFactory = new NettyReactiveWebServerFactory();
+        resourceFactory.ifAvailable(serverFactory::setResourceFactory);
+        routes.orderedStream().forEach(serverFactory::addRouteProviders);
+        serverFactory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return serverFactory;
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // Mapping URL path to the external directory
+        registry.addResourceHandler(API_ENDPOINT.concat("/").concat(uploadDir).concat("/**"))
+                .addResourceLocations("file:" + uploadDir + "/");
+    }
+
+}
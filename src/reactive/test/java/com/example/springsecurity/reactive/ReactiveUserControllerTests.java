@@ -0,0 +1,184 @@
+package com.example.springsecurity.reactive;
+
+import com.example.springsecurity.model.EnumRole;
+import com.example.springsecurity.model.User;
+import com.example.springsecurity.service.AuditService;
+import com.example.springsecurity.service.EmailAvailabilityService;
+import com.example.springsecurity.service.ProfileService;
+import com.example.springsecurity.service.StatsService;
+import com.example.springsecurity.util.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The reactive stack through its real security chain (JwtAuthWebFilter, path rules), with the R2DBC repository mocked
+@WebFluxTest(controllers = ReactiveUserController.class)
+@Import({ReactiveSecurityConfig.class, ReactiveAuthService.class, ReactiveUsersDetailsService.class, ProfileService.class, JwtUtils.class})
+@TestPropertySource(properties = {
+        "app.secret=AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=",
+        "file.upload-dir=uploads",
+        "app.reactive.password-threads=2",
+        "server.port=0"
+})
+class ReactiveUserControllerTests {
+
+    private static final String EMAIL = "jd@example.com";
+    private static final String PASSWORD = "secret-password";
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT = new ParameterizedTypeReference<>() {
+    };
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private ReactiveUserRepository reactiveUserRepository;
+    @MockitoBean
+    private AuditService auditService;
+    @MockitoBean
+    private StatsService statsService;
+    @MockitoBean
+    private EmailAvailabilityService emailAvailabilityService;
+
+    private User storedUser;        // the "row": the repository mock reads and writes this instance
+
+    @BeforeEach
+    void setUp() {
+        storedUser = User.builder().userName("JohnDoe").email(EMAIL).password(passwordEncoder.encode(PASSWORD)).role(EnumRole.USER).build();
+        storedUser.setId(42L);
+        storedUser.setUserBio("first bio");
+        storedUser.setUpdatedDateTime(LocalDateTime.of(2026, 1, 31, 14, 5, 9, 123_456_000));
+
+        when(reactiveUserRepository.findByEmail(anyString()))
+                .thenAnswer(invocation -> EMAIL.equals(invocation.getArgument(0)) ? Mono.just(copyOf(storedUser)) : Mono.empty());
+        when(reactiveUserRepository.update(any(User.class))).thenAnswer(invocation -> {
+            User updated = invocation.getArgument(0);
+            updated.setUpdatedDateTime(storedUser.getUpdatedDateTime().plusSeconds(1));
+            storedUser = copyOf(updated);
+            return Mono.just(updated);
+        });
+    }
+
+    @Test
+    void signInReturnsATokenForValidCredentials() {
+        Map<String, Object> response = signIn(PASSWORD).expectStatus().isOk()
+                .expectBody(JSON_OBJECT).returnResult().getResponseBody();
+
+        assertThat(response).containsEntry("email", EMAIL).containsEntry("role", "USER").containsEntry("message", "success");
+        assertThat((String) response.get("token")).isNotBlank();
+    }
+
+    @Test
+    void signInWithAWrongPasswordIsRejected() {
+        signIn("wrong-password").expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void profileIsServedForAValidTokenAndRevalidatedWith304() {
+        String token = token();
+
+        String etag = webTestClient.get().uri("/api/v1/user/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo(EMAIL)
+                .jsonPath("$.userBio").isEqualTo("first bio")
+                .returnResult().getResponseHeaders().getETag();
+        assertThat(etag).isNotBlank();
+
+        webTestClient.get().uri("/api/v1/user/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        // sign-in and the first profile miss; the claims authenticate /user/me, the 304 comes from the cache
+        verify(reactiveUserRepository, times(2)).findByEmail(EMAIL);
+    }
+
+    @Test
+    void profileIsRefusedForAnInvalidToken() {
+        String token = token();
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+
+        for (String authorization : new String[] {"Bearer " + tampered, "Bearer not-a-jwt"}) {
+            webTestClient.get().uri("/api/v1/user/me")
+                    .header(HttpHeaders.AUTHORIZATION, authorization)
+                    .exchange()
+                    .expectStatus().isUnauthorized();
+        }
+    }
+
+    @Test
+    void updateChangesTheProfileAndReissuesTheToken() {
+        String token = token();
+
+        MultipartBodyBuilder multipart = new MultipartBodyBuilder();
+        multipart.part("data", "{\"userBio\": \"second bio\"}");
+        Map<String, Object> response = webTestClient.put().uri("/api/v1/user/update")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(multipart.build()))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JSON_OBJECT).returnResult().getResponseBody();
+
+        assertThat(response).containsEntry("userBio", "second bio").containsEntry("message", "update success");
+        String newToken = (String) response.get("token");
+        assertThat(newToken).isNotEqualTo(token);
+        assertThat(storedUser.getUserBio()).isEqualTo("second bio");
+
+        webTestClient.get().uri("/api/v1/user/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + newToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.userBio").isEqualTo("second bio");
+    }
+
+    private WebTestClient.ResponseSpec signIn(String password) {
+        return webTestClient.post().uri("/api/v1/public/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("email", EMAIL, "password", password))
+                .exchange();
+    }
+
+    private String token() {
+        return (String) signIn(PASSWORD).expectStatus().isOk()
+                .expectBody(JSON_OBJECT).returnResult().getResponseBody().get("token");
+    }
+
+    private static User copyOf(User user) {
+        User copy = User.builder().userName(user.getUserName()).email(user.getEmail()).password(user.getPassword()).role(user.getRole()).build();
+        copy.setId(user.getId());
+        copy.setUserBio(user.getUserBio());
+        copy.setUserProfileImage(user.getUserProfileImage());
+        copy.setUpdatedDateTime(user.getUpdatedDateTime());
+        return copy;
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.example.springsecurity.config;
+
+import com.example.springsecurity.service.UsersDetailsService;
+import com.example.springsecurity.util.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class ConcurrencyLimitFilterTests {
+
+    private static final byte[] SECRET = new byte[32];
+    private static final String PROFILE_URI = JwtAuthFilter.PROFILE_ENDPOINT;
+
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+    private JwtAuthFilter jwtAuthFilter;
+    private UsersDetailsService usersDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        concurrencyLimitFilter = new ConcurrencyLimitFilter();
+        ReflectionTestUtils.setField(concurrencyLimitFilter, "enabled", true);
+        ReflectionTestUtils.setField(concurrencyLimitFilter, "initialLimit", 20);
+        ReflectionTestUtils.setField(concurrencyLimitFilter, "minLimit", 2);
+        ReflectionTestUtils.setField(concurrencyLimitFilter, "publicMaxLimit", 200);
+        ReflectionTestUtils.setField(concurrencyLimitFilter, "userMaxLimit", 200);
+        ReflectionTestUtils.setField(concurrencyLimitFilter, "adminMaxLimit", 20);
+        concurrencyLimitFilter.init();
+
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretString", Base64.getEncoder().encodeToString(SECRET));
+        jwtUtils.init();
+
+        usersDetailsService = mock(UsersDetailsService.class);
+        jwtAuthFilter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(jwtAuthFilter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(jwtAuthFilter, "usersDetailsService", usersDetailsService);
+        ReflectionTestUtils.setField(jwtAuthFilter, "replicaLagTracker", new ReplicaLagTracker());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void invalidTokensLeaveTheRequestUnauthenticatedWithoutShrinkingTheLimit() throws Exception {
+        String expired = Jwts.builder()
+                .subject("jd@example.com")
+                .issuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(new SecretKeySpec(SECRET, "HmacSHA256"))
+                .compact();
+        String badlySigned = Jwts.builder()
+                .subject("jd@example.com")
+                .signWith(new SecretKeySpec(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+                        17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32}, "HmacSHA256"))
+                .compact();
+        String[] headers = {"Bearer " + expired, "Bearer " + badlySigned, "Bearer not-a-jwt", "Bearer ", "Bearer"};
+
+        for (int i = 0; i < 100; i++) {
+            MockHttpServletResponse response = send(headers[i % headers.length]);
+            assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_UNAUTHORIZED);
+        }
+
+        assertThat(userLimit()).isEqualTo(20);
+        verifyNoInteractions(usersDetailsService);
+    }
+
+    @Test
+    void serverErrorsStillShrinkTheLimit() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", PROFILE_URI);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            new MockFilterChain(new FailingServlet(), concurrencyLimitFilter, jwtAuthFilter).doFilter(request, response);
+        }
+
+        assertThat(userLimit()).isLessThan(20);
+    }
+
+    private MockHttpServletResponse send(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", PROFILE_URI);
+        request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new MockFilterChain(new AuthenticatedOnlyServlet(), concurrencyLimitFilter, jwtAuthFilter).doFilter(request, response);
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+
+    private int userLimit() {
+        Map<String, Map<String, Object>> stats = concurrencyLimitFilter.getStats();
+        return (Integer) stats.get("user").get("limit");
+    }
+
+    // stands in for the authorization rules: 401 unless JwtAuthFilter authenticated the request
+    private static class AuthenticatedOnlyServlet extends HttpServlet {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+            boolean authenticated = SecurityContextHolder.getContext().getAuthentication() != null;
+            response.setStatus(authenticated ? HttpServletResponse.SC_OK : HttpServletResponse.SC_UNAUTHORIZED);
+        }
+    }
+
+    private static class FailingServlet extends HttpServlet {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) {
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+}
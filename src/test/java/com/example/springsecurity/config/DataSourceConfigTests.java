@@ -0,0 +1,72 @@
+package com.example.springsecurity.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceConfigTests {
+
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfig {
+    }
+
+    // SpringApplication's conversion service splits the comma-separated replica urls
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class))
+            .withUserConfiguration(DataSourcePropertiesConfig.class, DataSourceConfig.class)
+            .withPropertyValues(
+                    "app.datasource.replica.enabled=true",
+                    "app.datasource.replica.urls=jdbc:h2:mem:replica-a, jdbc:h2:mem:replica-b",
+                    "spring.datasource.url=jdbc:h2:mem:primary",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.password=",
+                    "spring.datasource.hikari.maximum-pool-size=42",
+                    "spring.datasource.hikari.connection-timeout=1234",
+                    "spring.datasource.hikari.pool-name=primary-pool",
+                    "app.datasource.replica.hikari.maximum-pool-size=7",
+                    "app.datasource.replica.hikari.pool-name=read-pool");
+
+    @Test
+    void primaryPoolKeepsTheSpringDatasourceHikariSettings() {
+        contextRunner.run(context -> {
+            HikariDataSource primary = (HikariDataSource) context.getBean(ReplicaRoutingDataSource.class).getPrimary();
+
+            assertThat(primary.getJdbcUrl()).isEqualTo("jdbc:h2:mem:primary");
+            assertThat(primary.getMaximumPoolSize()).isEqualTo(42);
+            assertThat(primary.getConnectionTimeout()).isEqualTo(1234);
+            assertThat(primary.getPoolName()).isEqualTo("primary-pool");
+        });
+    }
+
+    @Test
+    void replicaPoolsUseTheirOwnPrefix() {
+        contextRunner.run(context -> {
+            List<DataSource> replicas = List.copyOf(new TreeMap<>(context.getBean(ReplicaRoutingDataSource.class).getReplicas()).values());
+
+            assertThat(replicas).hasSize(2);
+            assertThat(replicas).allSatisfy(replica -> {
+                assertThat(((HikariDataSource) replica).getMaximumPoolSize()).isEqualTo(7);
+                assertThat(((HikariDataSource) replica).getUsername()).isEqualTo("sa");
+            });
+            assertThat(replicas).extracting(replica -> ((HikariDataSource) replica).getPoolName())
+                    .containsExactly("read-pool-0", "read-pool-1");
+            assertThat(replicas).extracting(replica -> ((HikariDataSource) replica).getJdbcUrl())
+                    .containsExactly("jdbc:h2:mem:replica-a", "jdbc:h2:mem:replica-b");
+        });
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.springsecurity.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two embedded H2 databases stand in for the primary and the replica;
+// each one holds a single row naming itself so every query reveals where it was routed
+class ReplicaRoutingDataSourceTests {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = createNode("primary");
+        replica = createNode("replica");
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.clear();
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readWriteTransactionUsesPrimary() {
+        String node = readWrite.execute(status -> currentNode());
+
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        String node = readOnly.execute(status -> currentNode());
+
+        assertThat(node).isEqualTo("replica");
+    }
+
+    @Test
+    void forcedPrimaryOverridesReadOnlyRouting() {
+        String node = ReplicaRoutingContext.onPrimary(() -> readOnly.execute(status -> currentNode()));
+
+        assertThat(node).isEqualTo("primary");
+        assertThat(ReplicaRoutingContext.isPrimaryForced()).isFalse();
+    }
+
+    @Test
+    void readOnlyWithoutReplicasFallsBackToPrimary() {
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, List.of()));
+        TransactionTemplate template = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        template.setReadOnly(true);
+
+        String node = template.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT name FROM node", String.class));
+
+        assertThat(node).isEqualTo("primary");
+    }
+
+    @Test
+    void recentWriterIsOnlyPinnedWithinLagWindow() {
+        ReplicaLagTracker tracker = new ReplicaLagTracker();
+        ReflectionTestUtils.setField(tracker, "maxLagMs", 60_000L);
+        tracker.recordWrite("jd@example.com");
+
+        assertThat(tracker.isRecentWriter("jd@example.com")).isTrue();
+        assertThat(tracker.isRecentWriter("other@example.com")).isFalse();
+
+        ReflectionTestUtils.setField(tracker, "maxLagMs", -1L);
+        assertThat(tracker.isRecentWriter("jd@example.com")).isFalse();
+    }
+
+    @Test
+    void laggingReplicaLeavesRotationUntilItCatchesUp() {
+        ReplicaLagTracker tracker = new ReplicaLagTracker();
+        ReflectionTestUtils.setField(tracker, "maxLagMs", 2000L);
+        ReflectionTestUtils.setField(tracker, "heartbeatIntervalMs", 500L);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor();
+        ReflectionTestUtils.setField(monitor, "replicaRoutingDataSource", routingDataSource);
+        ReflectionTestUtils.setField(monitor, "replicaLagTracker", tracker);
+        ReflectionTestUtils.setField(monitor, "maxLagMs", 2000L);
+
+        // the replica still shows a beat from 10 seconds ago
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("INSERT INTO replica_heartbeat (id, beat_at) VALUES (1, ?)", System.currentTimeMillis() - 10_000);
+        monitor.heartbeat();
+        String node = readOnly.execute(status -> currentNode());
+
+        assertThat(node).isEqualTo("primary");
+        assertThat(tracker.windowMs()).isEqualTo(2000L);    // nothing measurable in rotation: the cap
+
+        // the replica has applied the latest beat
+        replicaJdbc.update("UPDATE replica_heartbeat SET beat_at = ?", System.currentTimeMillis() + 60_000);
+        monitor.heartbeat();
+        node = readOnly.execute(status -> currentNode());
+
+        assertThat(node).isEqualTo("replica");
+        assertThat(tracker.windowMs()).isEqualTo(500L);     // measured lag (0) plus one heartbeat interval
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static EmbeddedDatabase createNode(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(name + "-" + UUID.randomUUID())
+                .build();
+        new JdbcTemplate(database).execute("CREATE TABLE node (name VARCHAR(16))");
+        new JdbcTemplate(database).update("INSERT INTO node (name) VALUES (?)", name);
+        new JdbcTemplate(database).execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        return database;
+    }
+
+}
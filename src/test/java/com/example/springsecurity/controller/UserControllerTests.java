@@ -0,0 +1,206 @@
+package com.example.springsecurity.controller;
+
+import com.example.springsecurity.config.JwtAuthFilter;
+import com.example.springsecurity.config.ReplicaLagTracker;
+import com.example.springsecurity.model.EnumRole;
+import com.example.springsecurity.model.User;
+import com.example.springsecurity.repository.UserRepository;
+import com.example.springsecurity.service.AuditService;
+import com.example.springsecurity.service.AuthService;
+import com.example.springsecurity.service.EmailAvailabilityService;
+import com.example.springsecurity.service.ProfileService;
+import com.example.springsecurity.service.StatsService;
+import com.example.springsecurity.service.UsersDetailsService;
+import com.example.springsecurity.util.JwtUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+
+class UserControllerTests {
+
+    private static final String EMAIL = "jd@example.com";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockMvc mockMvc;
+    private JwtUtils jwtUtils;
+    private UsersDetailsService usersDetailsService;
+    private User storedUser;        // the "row": the repository mock reads and writes this instance
+
+    @BeforeEach
+    void setUp() {
+        storedUser = User.builder().userName("JohnDoe").email(EMAIL).password("hash").role(EnumRole.USER).build();
+        storedUser.setId(42L);
+        storedUser.setUserBio("first bio");
+        storedUser.setUpdatedDateTime(LocalDateTime.of(2026, 1, 31, 14, 5, 9, 123_456_000));
+
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretString", Base64.getEncoder().encodeToString(new byte[32]));
+        jwtUtils.init();
+
+        ProfileService profileService = new ProfileService();
+        ReflectionTestUtils.setField(profileService, "maxEntries", 100);
+
+        usersDetailsService = mock(UsersDetailsService.class);
+        when(usersDetailsService.loadUserByUsername(EMAIL)).thenAnswer(invocation -> copyOf(storedUser));
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(EMAIL)).thenAnswer(invocation -> Optional.of(copyOf(storedUser)));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            User saved = invocation.getArgument(0);
+            saved.setUpdatedDateTime(storedUser.getUpdatedDateTime().plusSeconds(1));      // @UpdateTimestamp
+            storedUser = copyOf(saved);
+            return saved;
+        });
+
+        ReplicaLagTracker replicaLagTracker = new ReplicaLagTracker();
+        AuthService authService = new AuthService();
+        ReflectionTestUtils.setField(authService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(authService, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(authService, "auditService", mock(AuditService.class));
+        ReflectionTestUtils.setField(authService, "replicaLagTracker", replicaLagTracker);
+        ReflectionTestUtils.setField(authService, "profileService", profileService);
+        ReflectionTestUtils.setField(authService, "emailAvailabilityService", mock(EmailAvailabilityService.class));
+        ReflectionTestUtils.setField(authService, "statsService", mock(StatsService.class));
+
+        UserController userController = new UserController();
+        ReflectionTestUtils.setField(userController, "authService", authService);
+        ReflectionTestUtils.setField(userController, "profileService", profileService);
+        ReflectionTestUtils.setField(userController, "usersDetailsService", usersDetailsService);
+
+        JwtAuthFilter jwtAuthFilter = new JwtAuthFilter();
+        ReflectionTestUtils.setField(jwtAuthFilter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(jwtAuthFilter, "usersDetailsService", usersDetailsService);
+        ReflectionTestUtils.setField(jwtAuthFilter, "replicaLagTracker", replicaLagTracker);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+                .addFilters(jwtAuthFilter)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void matchingIfNoneMatchIsAnsweredWith304FromTheCache() throws Exception {
+        String token = tokenFor(storedUser);
+
+        MvcResult first = perform(get("/api/v1/user/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(first.getResponse().getStatus()).isEqualTo(200);
+        assertThat(etag).isEqualTo(etagOf(42L, storedUser.getUpdatedDateTime()));
+
+        MvcResult revalidated = perform(get("/api/v1/user/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(revalidated.getResponse().getStatus()).isEqualTo(304);
+        assertThat(revalidated.getResponse().getContentAsString()).isEmpty();
+        assertThat(revalidated.getResponse().getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+
+        MvcResult cached = perform(get("/api/v1/user/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+        assertThat(cached.getResponse().getStatus()).isEqualTo(200);
+        assertThat(json(cached).get("userBio").asText()).isEqualTo("first bio");
+
+        verify(usersDetailsService, times(1)).loadUserByUsername(EMAIL);       // only the first miss hit the DB
+    }
+
+    @Test
+    void profileUpdateChangesTheETagAndReplacesTheCachedProfile() throws Exception {
+        String oldToken = tokenFor(storedUser);
+        String oldEtag = perform(get("/api/v1/user/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + oldToken))
+                .getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult updated = perform(multipart(HttpMethod.PUT, "/api/v1/user/update")
+                .param("data", "{\"userBio\": \"second bio\"}")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + oldToken));
+        assertThat(updated.getResponse().getStatus()).isEqualTo(200);
+        String newToken = json(updated).get("token").asText();
+
+        MvcResult afterUpdate = perform(get("/api/v1/user/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + newToken)
+                .header(HttpHeaders.IF_NONE_MATCH, oldEtag));
+        assertThat(afterUpdate.getResponse().getStatus()).isEqualTo(200);
+        assertThat(afterUpdate.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(oldEtag);
+        assertThat(json(afterUpdate).get("userBio").asText()).isEqualTo("second bio");
+
+        // the first GET's miss and the PUT's authentication; the GET after the update is a cache hit
+        verify(usersDetailsService, times(2)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void tokenOlderThanTheStoredRowIsNotServedStaleData() throws Exception {
+        String oldToken = tokenFor(storedUser);
+        String oldEtag = etagOf(42L, storedUser.getUpdatedDateTime());
+
+        // the row changed elsewhere (e.g. on another instance): nothing is cached here yet
+        storedUser.setUserBio("changed elsewhere");
+        storedUser.setUpdatedDateTime(storedUser.getUpdatedDateTime().plusMinutes(1));
+
+        MvcResult response = perform(get("/api/v1/user/me")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + oldToken)
+                .header(HttpHeaders.IF_NONE_MATCH, oldEtag));
+
+        assertThat(response.getResponse().getStatus()).isEqualTo(200);
+        assertThat(response.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(oldEtag);
+        assertThat(json(response).get("userBio").asText()).isEqualTo("changed elsewhere");
+    }
+
+    private MvcResult perform(RequestBuilder request) throws Exception {
+        try {
+            return mockMvc.perform(request).andReturn();
+        } finally {
+            SecurityContextHolder.clearContext();       // each request authenticates from its own token
+        }
+    }
+
+    // strong ETag built from id + updatedDateTime (epoch seconds and nanos, in hex)
+    private static String etagOf(long id, LocalDateTime updated) {
+        return "\"" + id + "-" + Long.toHexString(updated.toEpochSecond(ZoneOffset.UTC)) + "." + Integer.toHexString(updated.getNano()) + "\"";
+    }
+
+    private String tokenFor(User user) {
+        return jwtUtils.generateToken(user.getUserName(), user);
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static User copyOf(User user) {
+        User copy = User.builder().userName(user.getUserName()).email(user.getEmail()).password(user.getPassword()).role(user.getRole()).build();
+        copy.setId(user.getId());
+        copy.setUserBio(user.getUserBio());
+        copy.setUserProfileImage(user.getUserProfileImage());
+        copy.setUpdatedDateTime(user.getUpdatedDateTime());
+        return copy;
+    }
+
+}
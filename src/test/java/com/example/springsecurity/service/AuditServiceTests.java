@@ -0,0 +1,145 @@
+package com.example.springsecurity.service;
+
+import com.example.springsecurity.model.AuditEventType;
+import com.example.springsecurity.model.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditServiceTests {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private AuditService auditService;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE security_audit_log (id BIGINT AUTO_INCREMENT PRIMARY KEY, event_type VARCHAR(16), "
+                + "email VARCHAR(255), success BOOLEAN, detail VARCHAR(255), occurred_at TIMESTAMP)");
+
+        // the writer only wakes up for a full batch or after the flush interval: neither happens in these tests
+        auditService = new AuditService();
+        ReflectionTestUtils.setField(auditService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(auditService, "bufferCapacity", 4);
+        ReflectionTestUtils.setField(auditService, "batchSize", 256);
+        ReflectionTestUtils.setField(auditService, "flushIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(auditService, "shutdownTimeoutMs", 5_000L);
+        auditService.init();
+        awaitWriterParked();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void dropsAndCountsEventsWhenTheBufferIsFull() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            auditService.publish(AuditEventType.SIGN_IN, "user" + i + "@example.com", true, null);
+        }
+
+        Map<String, Long> stats = auditService.getStats();
+        assertThat(stats.get("published")).isEqualTo(4);
+        assertThat(stats.get("dropped")).isEqualTo(6);
+        assertThat(stats.get("depth")).isEqualTo(4);
+
+        auditService.shutdown();
+        assertThat(rowCount()).isEqualTo(4);
+    }
+
+    @Test
+    void shutdownWritesThePendingEvents() throws InterruptedException {
+        auditService.publish(AuditEventType.SIGN_UP, "a@example.com", true, null);
+        auditService.publish(AuditEventType.SIGN_IN, "a@example.com", false, "BadCredentialsException");
+        auditService.publish(AuditEventType.UPDATE, "a@example.com", true, "userBio");
+        assertThat(rowCount()).isZero();
+
+        auditService.shutdown();
+
+        assertThat(rowCount()).isEqualTo(3);
+        Map<String, Long> stats = auditService.getStats();
+        assertThat(stats.get("written")).isEqualTo(3);
+        assertThat(stats.get("depth")).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT detail FROM security_audit_log WHERE event_type = 'SIGN_IN'", String.class)).isEqualTo("BadCredentialsException");
+    }
+
+    @Test
+    void oversizedClientValuesAreTruncatedToTheColumnLength() throws InterruptedException {
+        String longEmail = "a".repeat(300) + "@example.com";
+        auditService.publish(AuditEventType.SIGN_IN, longEmail, false, "d".repeat(1_000));
+
+        auditService.shutdown();
+
+        assertThat(rowCount()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT email FROM security_audit_log", String.class))
+                .isEqualTo(longEmail.substring(0, AuditLog.EMAIL_LENGTH));
+        assertThat(jdbcTemplate.queryForObject("SELECT LENGTH(detail) FROM security_audit_log", Integer.class))
+                .isEqualTo(AuditLog.DETAIL_LENGTH);
+    }
+
+    @Test
+    void aRejectedRowDoesNotLoseTheRestOfItsBatch() throws InterruptedException {
+        jdbcTemplate.execute("ALTER TABLE security_audit_log ADD CONSTRAINT no_poison CHECK (detail <> 'poison')");
+        auditService.publish(AuditEventType.SIGN_IN, "a@example.com", false, "BadCredentialsException");
+        auditService.publish(AuditEventType.SIGN_IN, "b@example.com", false, "poison");
+        auditService.publish(AuditEventType.SIGN_IN, "c@example.com", true, null);
+
+        auditService.shutdown();
+
+        assertThat(rowCount()).isEqualTo(2);
+        Map<String, Long> stats = auditService.getStats();
+        assertThat(stats.get("written")).isEqualTo(2);
+        assertThat(stats.get("failed")).isEqualTo(1);
+    }
+
+    @Test
+    void writerKeepsRunningAfterAnUnexpectedException() throws InterruptedException {
+        Thread writer = (Thread) ReflectionTestUtils.getField(auditService, "writer");
+
+        auditService.publish(null, "a@example.com", true, null);        // fails while binding, outside DataAccessException
+        LockSupport.unpark(writer);
+        awaitStat("failed", 1);
+        assertThat(writer.isAlive()).isTrue();
+
+        auditService.publish(AuditEventType.SIGN_IN, "a@example.com", true, null);
+        LockSupport.unpark(writer);
+        awaitStat("written", 1);
+        assertThat(rowCount()).isEqualTo(1);
+    }
+
+    private void awaitStat(String name, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (auditService.getStats().get(name) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(auditService.getStats().get(name)).isEqualTo(expected);
+    }
+
+    private int rowCount() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM security_audit_log", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    // events published before the writer's first (empty) drain would be written immediately
+    private void awaitWriterParked() throws InterruptedException {
+        Thread writer = (Thread) ReflectionTestUtils.getField(auditService, "writer");
+        while (writer.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(5);
+        }
+    }
+
+}
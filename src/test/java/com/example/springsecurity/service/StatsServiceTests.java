@@ -0,0 +1,122 @@
+package com.example.springsecurity.service;
+
+import com.example.springsecurity.model.EnumRole;
+import com.example.springsecurity.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Two StatsService instances share one H2 database (MySQL mode, for the upsert), like two application instances
+class StatsServiceTests {
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private StatsService first;
+    private StatsService second;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:stats-" + UUID.randomUUID() + ";MODE=MySQL", true);
+        jdbcTemplate = new JdbcTemplate(dataSource) {
+            // H2 has no MySQL row alias ("VALUES (...) AS new"): run the VALUES(col) form it does understand
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                return super.batchUpdate(sql.replace(" AS new ", " ")
+                        .replace("stats_checkpoint.metric_value + new.metric_value", "metric_value + VALUES(metric_value)")
+                        .replace("new.checkpointed_at", "VALUES(checkpointed_at)"), batchArgs);
+            }
+        };
+        jdbcTemplate.execute("CREATE TABLE stats_checkpoint (metric VARCHAR(64) PRIMARY KEY, metric_value BIGINT NOT NULL, "
+                + "checkpointed_at TIMESTAMP NOT NULL)");
+
+        first = createInstance();
+        second = createInstance();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void checkpointsOfSeveralInstancesAddUp() {
+        for (int i = 0; i < 3; i++) {
+            first.recordSignIn();
+        }
+        second.recordSignIn();
+        second.recordProfileUpdate();
+
+        first.checkpoint();
+        second.checkpoint();
+        first.checkpoint();     // nothing new: must not add its logins again
+
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(metric_value) FROM stats_checkpoint WHERE metric LIKE 'logins.hour.%'", Long.class))
+                .isEqualTo(4L);
+        assertThat(total(first, "loginsPerHour")).isEqualTo(4L);
+        assertThat(total(second, "loginsPerHour")).isEqualTo(4L);
+        assertThat(total(first, "profileUpdatesPerDay")).isEqualTo(1L);
+    }
+
+    @Test
+    void incrementsAfterACheckpointAreShownAndKeptForTheNext() {
+        first.recordSignIn();
+        first.checkpoint();
+        first.recordSignIn();
+
+        assertThat(total(first, "loginsPerHour")).isEqualTo(2L);
+
+        first.checkpoint();
+        assertThat(total(createInstance(), "loginsPerHour")).isEqualTo(2L);     // a restarted instance restores both
+    }
+
+    @Test
+    void reconcileReplacesDriftAndKeepsTheIncrementsThatFollow() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.countUsersByRole()).thenAnswer(invocation -> {
+            first.recordSignUp(EnumRole.USER);      // a sign-up committed while the count ran: included in it
+            return List.<Object[]>of(new Object[] {EnumRole.USER, 7L}, new Object[] {EnumRole.ADMIN, 1L});
+        });
+        when(userRepository.countSignUpsPerDaySince(any())).thenReturn(List.<Object[]>of(new Object[] {LocalDate.now(), 3L}));
+        ReflectionTestUtils.setField(first, "userRepository", userRepository);
+        first.init();
+        first.recordSignUp(EnumRole.USER);
+        first.recordSignUp(EnumRole.USER);
+
+        first.reconcileUsers();
+        assertThat(first.getStats().get("totalUsers")).isEqualTo(8L);
+        assertThat(total(first, "usersByRole")).isEqualTo(8L);
+        assertThat(total(first, "signUpsPerDay")).isEqualTo(3L);
+
+        first.recordSignUp(EnumRole.ADMIN);
+        assertThat(first.getStats().get("totalUsers")).isEqualTo(9L);
+        assertThat(total(first, "signUpsPerDay")).isEqualTo(4L);
+    }
+
+    private StatsService createInstance() {
+        StatsService statsService = new StatsService();
+        ReflectionTestUtils.setField(statsService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(statsService, "retentionDays", 30);
+        ReflectionTestUtils.setField(statsService, "retentionHours", 48);
+        ReflectionTestUtils.invokeMethod(statsService, "loadCheckpoints");     // seed() without the users table
+        return statsService;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long total(StatsService statsService, String metric) {
+        return ((Map<String, Long>) statsService.getStats().get(metric)).values().stream().mapToLong(Long::longValue).sum();
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.example.springsecurity.service;
+
+import com.example.springsecurity.config.ReplicaLagTracker;
+import com.example.springsecurity.config.ReplicaRoutingDataSource;
+import com.example.springsecurity.model.User;
+import com.example.springsecurity.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.*;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// UsersDetailsService on the real JPA stack (JpaTransactionManager + Hibernate) over the replica routing;
+// the primary and the replica each hold the same users, named after the node, so every lookup reveals where it was routed
+@SpringJUnitConfig(UsersDetailsServiceReplicaTests.JpaReplicaConfig.class)
+class UsersDetailsServiceReplicaTests {
+
+    private static final String READER = "reader@example.com";
+    private static final String LOCAL_WRITER = "local-writer@example.com";
+    private static final String REMOTE_WRITER = "remote-writer@example.com";
+
+    @Autowired
+    private UserDetailsService usersDetailsService;
+    @Autowired
+    private ReplicaLagTracker replicaLagTracker;
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyLookupUsesReplica() {
+        assertThat(nodeOf(READER)).isEqualTo("replica");
+    }
+
+    @Test
+    void recentWriterOnThisInstanceUsesPrimary() {
+        replicaLagTracker.recordWrite(LOCAL_WRITER);
+
+        assertThat(nodeOf(LOCAL_WRITER)).isEqualTo("primary");
+    }
+
+    @Test
+    void recentWriterOnAnotherInstanceUsesPrimary() {
+        // the write is served by another instance: only the client's cookie carries it over
+        ReplicaLagTracker otherInstance = new ReplicaLagTracker();
+        ReflectionTestUtils.setField(otherInstance, "maxLagMs", 2000L);
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), writeResponse));
+        otherInstance.recordWrite(REMOTE_WRITER);
+
+        Cookie lastWrite = writeResponse.getCookie(ReplicaLagTracker.LAST_WRITE_COOKIE);
+        assertThat(lastWrite).isNotNull();
+
+        MockHttpServletRequest readRequest = new MockHttpServletRequest();
+        readRequest.setCookies(lastWrite);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(readRequest));
+
+        assertThat(nodeOf(REMOTE_WRITER)).isEqualTo("primary");
+        assertThat(nodeOf(READER)).isEqualTo("primary");    // the cookie pins the client, whoever it reads
+    }
+
+    private String nodeOf(String email) {
+        return ((User) usersDetailsService.loadUserByUsername(email)).getUserName();
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = UserRepository.class))
+    @Import({UsersDetailsService.class, ReplicaLagTracker.class})
+    static class JpaReplicaConfig {
+
+        @Bean(destroyMethod = "shutdown")
+        EmbeddedDatabase primaryNode() {
+            return createNode("primary");
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        EmbeddedDatabase replicaNode() {
+            return createNode("replica");
+        }
+
+        @Bean
+        @Primary
+        DataSource dataSource(EmbeddedDatabase primaryNode, EmbeddedDatabase replicaNode) {
+            return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primaryNode, List.of(replicaNode)));
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setPackagesToScan(User.class.getPackageName());
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setJpaPropertyMap(Map.of("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+            return factory;
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        private static EmbeddedDatabase createNode(String name) {
+            EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                    .setType(EmbeddedDatabaseType.H2)
+                    .setName(name + "-" + UUID.randomUUID())
+                    .build();
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+            jdbcTemplate.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_name VARCHAR(255) NOT NULL, " +
+                    "email VARCHAR(255) NOT NULL UNIQUE, password VARCHAR(255) NOT NULL, created_date_time TIMESTAMP NOT NULL, " +
+                    "updated_date_time TIMESTAMP NOT NULL, user_bio CLOB, user_profile_image VARCHAR(255), role VARCHAR(16) NOT NULL)");
+            for (String email : List.of(READER, LOCAL_WRITER, REMOTE_WRITER)) {
+                jdbcTemplate.update("INSERT INTO users (user_name, email, password, created_date_time, updated_date_time, role) " +
+                        "VALUES (?, ?, 'secret', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'USER')", name, email);
+            }
+            return database;
+        }
+
+    }
+
+}
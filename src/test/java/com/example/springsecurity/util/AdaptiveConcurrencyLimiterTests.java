@@ -0,0 +1,99 @@
+package com.example.springsecurity.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void rejectsRequestsAboveTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void growsWhileLatencyIsSteadyAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100);
+
+        saturate(limiter, FAST, 50);
+        int grownLimit = limiter.getLimit();
+        assertThat(grownLimit).isGreaterThan(10);
+
+        saturate(limiter, SLOW, 20);
+        assertThat(limiter.getLimit()).isLessThan(grownLimit);
+    }
+
+    @Test
+    void dropsBackOffButNeverBelowTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 100);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void dropsReleasedWhileTheUpdateLockIsHeldAreAppliedLater() throws InterruptedException {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100);
+        ReentrantLock updateLock = (ReentrantLock) ReflectionTestUtils.getField(limiter, "updateLock");
+
+        // another thread holds the update lock while this one releases a dropped request
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch dropReleased = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            updateLock.lock();
+            try {
+                locked.countDown();
+                dropReleased.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                updateLock.unlock();
+            }
+        });
+        holder.start();
+        locked.await();
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        dropReleased.countDown();
+        holder.join();
+
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        assertThat(limiter.getLimit()).isEqualTo(9);
+    }
+
+    // fills every available slot, then completes them all with the given latency
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(rttNanos, false);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.example.springsecurity.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTests {
+
+    private static final int INSERTIONS = 10_000;
+    private static final int PROBES = 100_000;
+
+    @Test
+    void everyAddedValueIsReported() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, 0.01);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        // a small target needs many hash rounds, where an int-combined double hash used to overflow
+        for (double fpp : new double[] {0.01, 0.000_01}) {
+            BloomFilter filter = new BloomFilter(INSERTIONS, fpp);
+            for (int i = 0; i < INSERTIONS; i++) {
+                filter.put("user" + i + "@example.com");
+            }
+
+            int falsePositives = 0;
+            for (int i = 0; i < PROBES; i++) {
+                if (filter.mightContain("other" + i + "@example.com")) {
+                    falsePositives++;
+                }
+            }
+
+            assertThat((double) falsePositives / PROBES).isLessThan(fpp * 2 + 1.0 / PROBES);
+        }
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.example.springsecurity.util;
+
+import com.example.springsecurity.model.EnumRole;
+import com.example.springsecurity.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTests {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretString", Base64.getEncoder().encodeToString(new byte[32]));
+        jwtUtils.init();
+    }
+
+    @Test
+    void profilePrincipalIsRebuiltFromClaims() {
+        User user = User.builder().userName("JohnDoe").email("jd@example.com").password("hash").role(EnumRole.ADMIN).build();
+        user.setId(42L);
+        user.setUpdatedDateTime(LocalDateTime.of(2026, 1, 31, 14, 5, 9, 123_456_000));
+
+        User principal = jwtUtils.extractUser(jwtUtils.generateToken(user.getUserName(), user));
+
+        assertThat(principal.getId()).isEqualTo(42L);
+        assertThat(principal.getEmail()).isEqualTo("jd@example.com");
+        assertThat(principal.getUserName()).isEqualTo("JohnDoe");
+        assertThat(principal.getRole()).isEqualTo(EnumRole.ADMIN);
+        assertThat(principal.getUpdatedDateTime()).isEqualTo(user.getUpdatedDateTime());
+        assertThat(principal.getPassword()).isNull();
+    }
+
+    @Test
+    void tokenWithoutVersionClaimsHasNoProfilePrincipal() {
+        User unsaved = User.builder().userName("JohnDoe").email("jd@example.com").password("hash").build();
+
+        assertThat(jwtUtils.extractUser(jwtUtils.generateToken(unsaved.getUserName(), unsaved))).isNull();
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.springsecurity.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.util.ReflectionTestUtils.getField;
+
+class TokenBucketRateLimiterTests {
+
+    @Test
+    void allowsBurstUpToCapacityPerKey() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 100);
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isFalse();
+
+        assertThat(limiter.tryAcquire("10.0.0.2")).isTrue();     // other clients keep their own bucket
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 60_000, 100);    // one token per ms
+
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+        assertThat(limiter.tryAcquire("10.0.0.1")).isFalse();
+
+        Thread.sleep(20);
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sweepsRefilledBucketsOnceFull() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 60_000, 2);
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.2");
+
+        Thread.sleep(20);                   // both buckets have refilled, so they hold no state
+        limiter.tryAcquire("10.0.0.3");
+
+        Map<String, ?> buckets = (Map<String, ?>) getField(limiter, "buckets");
+        assertThat(buckets).containsOnlyKeys("10.0.0.3");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refusesNewKeysWhileFullOfActiveBuckets() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1, 2);     // nothing refills during the test
+        limiter.tryAcquire("10.0.0.1");
+        limiter.tryAcquire("10.0.0.2");
+
+        for (int i = 3; i < 1_000; i++) {
+            assertThat(limiter.tryAcquire("10.0.0." + i)).isFalse();
+        }
+        assertThat(limiter.tryAcquire("10.0.0.1")).isTrue();         // known clients keep their bucket
+
+        Map<String, ?> buckets = (Map<String, ?>) getField(limiter, "buckets");
+        assertThat(buckets).containsOnlyKeys("10.0.0.1", "10.0.0.2");
+    }
+
+}